@@ -7,15 +7,19 @@ module ru.ifmo.rain.kurbatov {
     requires info.kgeorgiy.java.advanced.arrayset;
     requires info.kgeorgiy.java.advanced.student;
     requires info.kgeorgiy.java.advanced.implementor;
-    requires info.kgeorgiy.java.advanced.concurrent;
-    requires info.kgeorgiy.java.advanced.mapper;
+    requires transitive info.kgeorgiy.java.advanced.concurrent;
+    requires transitive info.kgeorgiy.java.advanced.mapper;
     requires info.kgeorgiy.java.advanced.crawler;
     requires info.kgeorgiy.java.advanced.hello;
     requires java.compiler;
     requires java.rmi;
+    requires transitive java.management;
+    requires jdk.management;
+    requires jdk.jfr;
     requires org.junit.jupiter.api;
     requires org.junit.platform.commons;
     requires org.junit.platform.launcher;
     requires org.junit.platform.engine;
     exports ru.ifmo.rain.kurbatov.bank;
+    exports ru.ifmo.rain.kurbatov.concurrent;
 }
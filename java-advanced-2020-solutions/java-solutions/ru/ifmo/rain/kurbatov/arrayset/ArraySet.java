@@ -12,15 +12,12 @@ public class ArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
     }
 
     public ArraySet(final Collection<? extends T> st) {
-        comparator = null;
-        data = List.copyOf((new TreeSet<>(st)));
+        this(st, null);
     }
 
     public ArraySet(final Collection<? extends T> st, final Comparator<? super T> cmp) {
         comparator = cmp;
-        TreeSet<T> tmp = new TreeSet<>(cmp);
-        tmp.addAll(st);
-        data = List.copyOf(tmp);
+        data = asList(SortedArrays.sortedUnique(st, cmp));
     }
 
     private ArraySet(List<T> arr, Comparator<? super T> cmp) {
@@ -28,6 +25,108 @@ public class ArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
         data = arr;
     }
 
+    /**
+     * Makes set with elements laid out in BFS (Eytzinger) order, which is faster to search when set does not fit in cache.
+     * Set behaves exactly like one made by {@link #ArraySet(Collection)}.
+     *
+     * @param st elements of set
+     * @param <T> type of elements
+     * @return set of given elements
+     */
+    public static <T> ArraySet<T> ofCacheFriendly(final Collection<? extends T> st) {
+        return ofCacheFriendly(st, null);
+    }
+
+    /**
+     * Makes set with elements laid out in BFS (Eytzinger) order, which is faster to search when set does not fit in cache.
+     * Set behaves exactly like one made by {@link #ArraySet(Collection, Comparator)}.
+     *
+     * @param st elements of set
+     * @param cmp comparator of elements, {@code null} for natural ordering
+     * @param <T> type of elements
+     * @return set of given elements
+     */
+    public static <T> ArraySet<T> ofCacheFriendly(final Collection<? extends T> st, final Comparator<? super T> cmp) {
+        return new ArraySet<>(new EytzingerList<>(SortedArrays.sortedUnique(st, cmp), cmp), cmp);
+    }
+
+    /**
+     * Makes set over given sorted array of distinct elements without copying it.
+     */
+    static <T> ArraySet<T> ofSortedArray(final Object[] sorted, final Comparator<? super T> cmp) {
+        return new ArraySet<>(asList(sorted), cmp);
+    }
+
+    /**
+     * Makes set over range {@code [from, to)} of given sorted array of distinct elements without copying it.
+     */
+    static <T> ArraySet<T> ofSortedArray(final Object[] sorted, final int from, final int to, final Comparator<? super T> cmp) {
+        return new ArraySet<>(ArraySet.<T>asList(sorted).subList(from, to), cmp);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> asList(final Object[] arr) {
+        return Collections.unmodifiableList((List<T>) Arrays.asList(arr));
+    }
+
+    /**
+     * Builder of {@link ArraySet} for large inputs.
+     * Sorted input is deduplicated in one linear pass, unsorted one is sorted and deduplicated in parallel.
+     *
+     * @param <T> type of elements
+     */
+    public static class Builder<T> {
+        private final Comparator<? super T> comparator;
+        private final List<T> elements = new ArrayList<>();
+        private boolean presorted;
+
+        /**
+         * Makes builder of set with natural ordering.
+         */
+        public Builder() {
+            this(null);
+        }
+
+        /**
+         * Makes builder of set with given ordering.
+         *
+         * @param cmp comparator of elements, {@code null} for natural ordering
+         */
+        public Builder(final Comparator<? super T> cmp) {
+            comparator = cmp;
+        }
+
+        public Builder<T> add(final T elem) {
+            elements.add(elem);
+            return this;
+        }
+
+        public Builder<T> addAll(final Collection<? extends T> st) {
+            elements.addAll(st);
+            return this;
+        }
+
+        /**
+         * Declares that elements are added in non-descending order, so sortedness check is skipped.
+         * Set made from unsorted elements after this call is broken.
+         *
+         * @return this builder
+         */
+        public Builder<T> presorted() {
+            presorted = true;
+            return this;
+        }
+
+        /**
+         * Makes set of added elements. Of equal elements the first added one is kept.
+         *
+         * @return new set
+         */
+        public ArraySet<T> build() {
+            return ofSortedArray(SortedArrays.sortedUnique(elements.toArray(), comparator, presorted), comparator);
+        }
+    }
+
     private T getElem(int pos) {
         return (pos == -1 || pos == size() ? null : data.get(pos));
     }
@@ -94,8 +193,15 @@ public class ArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
         return tailSet(fromElement, fromInclusive).headSet(toElement, toInclusive);
     }
 
+    private int search(T elem) {
+        if (data instanceof EytzingerList) {
+            return ((EytzingerList<T>) data).binarySearch(elem);
+        }
+        return Collections.binarySearch(data, elem, comparator);
+    }
+
     private int getBound(T elem, boolean inclusive, boolean greater) {
-        int pos = Collections.binarySearch(data, elem, comparator);
+        int pos = search(elem);
         if (pos >= 0) {
             if (inclusive) {
                 return pos;
@@ -147,6 +253,230 @@ public class ArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
         return tailSet(fromElement, true);
     }
 
+    private ArraySet<T> apply(final ArraySet<T> other, final SortedArrays.Operation op, final int parts) {
+        if (!Objects.equals(comparator, other.comparator)) {
+            throw new IllegalArgumentException("Sets have different orderings");
+        }
+        if (parts <= 0) {
+            throw new IllegalArgumentException("Parts count must be positive");
+        }
+        return ofSortedArray(SortedArrays.apply(data, other.data, comparator, op, parts), comparator);
+    }
+
+    /**
+     * Returns union of this set and given one in {@code O(n + m)}. Sets must have equal comparators.
+     *
+     * @param other set to unite with
+     * @return new set of elements contained in any of sets
+     */
+    public ArraySet<T> union(final ArraySet<T> other) {
+        return union(other, 1);
+    }
+
+    /**
+     * Returns union of this set and given one, processing up to {@code parts} value ranges in parallel.
+     *
+     * @param other set to unite with
+     * @param parts number of parts processed in parallel
+     * @return new set of elements contained in any of sets
+     */
+    public ArraySet<T> union(final ArraySet<T> other, final int parts) {
+        return apply(other, SortedArrays.UNION, parts);
+    }
+
+    /**
+     * Returns intersection of this set and given one in {@code O(n + m)},
+     * or {@code O(m log(n / m))} if sizes differ a lot. Sets must have equal comparators.
+     *
+     * @param other set to intersect with
+     * @return new set of elements contained in both sets
+     */
+    public ArraySet<T> intersect(final ArraySet<T> other) {
+        return intersect(other, 1);
+    }
+
+    /**
+     * Returns intersection of this set and given one, processing up to {@code parts} value ranges in parallel.
+     *
+     * @param other set to intersect with
+     * @param parts number of parts processed in parallel
+     * @return new set of elements contained in both sets
+     */
+    public ArraySet<T> intersect(final ArraySet<T> other, final int parts) {
+        return apply(other, SortedArrays.INTERSECTION, parts);
+    }
+
+    /**
+     * Returns difference of this set and given one in {@code O(n + m)},
+     * or {@code O(m log(n / m))} if sizes differ a lot. Sets must have equal comparators.
+     *
+     * @param other set to subtract
+     * @return new set of elements contained in this set only
+     */
+    public ArraySet<T> difference(final ArraySet<T> other) {
+        return difference(other, 1);
+    }
+
+    /**
+     * Returns difference of this set and given one, processing up to {@code parts} value ranges in parallel.
+     *
+     * @param other set to subtract
+     * @param parts number of parts processed in parallel
+     * @return new set of elements contained in this set only
+     */
+    public ArraySet<T> difference(final ArraySet<T> other, final int parts) {
+        return apply(other, SortedArrays.DIFFERENCE, parts);
+    }
+
+    /**
+     * Returns symmetric difference of this set and given one in {@code O(n + m)}. Sets must have equal comparators.
+     *
+     * @param other set to compare with
+     * @return new set of elements contained in exactly one of sets
+     */
+    public ArraySet<T> symmetricDifference(final ArraySet<T> other) {
+        return symmetricDifference(other, 1);
+    }
+
+    /**
+     * Returns symmetric difference of this set and given one, processing up to {@code parts} value ranges in parallel.
+     *
+     * @param other set to compare with
+     * @param parts number of parts processed in parallel
+     * @return new set of elements contained in exactly one of sets
+     */
+    public ArraySet<T> symmetricDifference(final ArraySet<T> other, final int parts) {
+        return apply(other, SortedArrays.SYMMETRIC_DIFFERENCE, parts);
+    }
+
+    private int[] lowerBounds(final List<? extends T> probes, final int parts) {
+        if (parts <= 0) {
+            throw new IllegalArgumentException("Parts count must be positive");
+        }
+        return SortedArrays.lowerBounds(data, probes, comparator, parts);
+    }
+
+    private boolean isEqual(final int pos, final T elem) {
+        return pos < size() && SortedArrays.compare(comparator, data.get(pos), elem) == 0;
+    }
+
+    /**
+     * Returns {@link #floor(Object) floor} of each of given elements.
+     * Elements sorted in order of this set are answered in one sweep in {@code O(m log(n / m))}.
+     *
+     * @param probes elements to look for
+     * @return list of results, {@code null} where there is no floor
+     */
+    public List<T> floorAll(final List<? extends T> probes) {
+        return floorAll(probes, 1);
+    }
+
+    /**
+     * Returns {@link #floor(Object) floor} of each of given elements, processing up to {@code parts} ranges of probes in parallel.
+     *
+     * @param probes elements to look for
+     * @param parts number of parts processed in parallel
+     * @return list of results, {@code null} where there is no floor
+     */
+    public List<T> floorAll(final List<? extends T> probes, final int parts) {
+        final int[] bounds = lowerBounds(probes, parts);
+        final List<T> res = new ArrayList<>(bounds.length);
+        for (int i = 0; i < bounds.length; i++) {
+            res.add(getElem(isEqual(bounds[i], probes.get(i)) ? bounds[i] : bounds[i] - 1));
+        }
+        return res;
+    }
+
+    /**
+     * Returns {@link #ceiling(Object) ceiling} of each of given elements.
+     * Elements sorted in order of this set are answered in one sweep in {@code O(m log(n / m))}.
+     *
+     * @param probes elements to look for
+     * @return list of results, {@code null} where there is no ceiling
+     */
+    public List<T> ceilingAll(final List<? extends T> probes) {
+        return ceilingAll(probes, 1);
+    }
+
+    /**
+     * Returns {@link #ceiling(Object) ceiling} of each of given elements, processing up to {@code parts} ranges of probes in parallel.
+     *
+     * @param probes elements to look for
+     * @param parts number of parts processed in parallel
+     * @return list of results, {@code null} where there is no ceiling
+     */
+    public List<T> ceilingAll(final List<? extends T> probes, final int parts) {
+        final int[] bounds = lowerBounds(probes, parts);
+        final List<T> res = new ArrayList<>(bounds.length);
+        for (final int bound : bounds) {
+            res.add(getElem(bound));
+        }
+        return res;
+    }
+
+    /**
+     * Checks which of given elements are contained in this set.
+     * Elements sorted in order of this set are answered in one sweep in {@code O(m log(n / m))}.
+     *
+     * @param probes elements to look for
+     * @return bitmap with {@code i}-th bit set iff {@code i}-th element is contained in set
+     */
+    public BitSet containsEach(final List<? extends T> probes) {
+        return containsEach(probes, 1);
+    }
+
+    /**
+     * Checks which of given elements are contained in this set, processing up to {@code parts} ranges of probes in parallel.
+     *
+     * @param probes elements to look for
+     * @param parts number of parts processed in parallel
+     * @return bitmap with {@code i}-th bit set iff {@code i}-th element is contained in set
+     */
+    public BitSet containsEach(final List<? extends T> probes, final int parts) {
+        final int[] bounds = lowerBounds(probes, parts);
+        final BitSet res = new BitSet(bounds.length);
+        for (int i = 0; i < bounds.length; i++) {
+            if (isEqual(bounds[i], probes.get(i))) {
+                res.set(i);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns number of elements of this set less than given one, i.e. position it would have in this set.
+     *
+     * @param elem element to look for
+     * @return number of elements less than {@code elem}
+     */
+    public int rank(final T elem) {
+        return getBound(Objects.requireNonNull(elem), false, false) + 1;
+    }
+
+    /**
+     * Returns element at given position of this set.
+     *
+     * @param pos position of element, from {@code 0} to {@code size() - 1}
+     * @return {@code pos}-th element
+     * @throws IndexOutOfBoundsException if there is no such position
+     */
+    public T select(final int pos) {
+        Objects.checkIndex(pos, size());
+        return data.get(pos);
+    }
+
+    /**
+     * Returns position of given element in this set.
+     *
+     * @param elem element to look for
+     * @return position of {@code elem} or {@code -1} if it is not contained in set
+     */
+    @SuppressWarnings("unchecked")
+    public int indexOf(final Object elem) {
+        final int pos = search((T) Objects.requireNonNull(elem));
+        return pos >= 0 ? pos : -1;
+    }
+
     private void checkEmpty() {
         if (isEmpty()) {
             throw new NoSuchElementException("Collection is empty");
@@ -168,30 +498,53 @@ public class ArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
     @SuppressWarnings("unchecked")
     @Override
     public boolean contains(Object elem) {
-        return (Collections.binarySearch(data, (T) Objects.requireNonNull(elem), comparator) >= 0);
+        return (search((T) Objects.requireNonNull(elem)) >= 0);
     }
 
-    private static class ReversableList<T> extends AbstractList<T> {
-        private boolean rev;
+    private static class ReversableList<T> extends AbstractList<T> implements RandomAccess {
+        private final boolean rev;
         private final List<T> data;
+        private final int from;
+        private final int to;
 
         public int size() {
-            return data.size();
+            return to - from;
         }
 
         private ReversableList(final List<T> arr) {
             if (arr instanceof ReversableList) {
-                data = ((ReversableList<T>)arr).data;
-                rev = !((ReversableList<T>)arr).rev;
+                final ReversableList<T> list = (ReversableList<T>) arr;
+                data = list.data;
+                from = list.from;
+                to = list.to;
+                rev = !list.rev;
             } else {
                 data = arr;
+                from = 0;
+                to = arr.size();
                 rev = true;
             }
         }
 
+        private ReversableList(final List<T> data, final int from, final int to, final boolean rev) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.rev = rev;
+        }
+
         @Override
         public T get(int pos) {
-            return data.get(rev ? size() - pos - 1 : pos);
+            Objects.checkIndex(pos, size());
+            return data.get(rev ? to - pos - 1 : from + pos);
+        }
+
+        @Override
+        public List<T> subList(final int fromIndex, final int toIndex) {
+            Objects.checkFromToIndex(fromIndex, toIndex, size());
+            return rev
+                    ? new ReversableList<>(data, to - toIndex, to - fromIndex, true)
+                    : new ReversableList<>(data, from + fromIndex, from + toIndex, false);
         }
     }
 }
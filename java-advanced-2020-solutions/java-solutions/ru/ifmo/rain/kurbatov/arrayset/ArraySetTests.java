@@ -0,0 +1,266 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArraySetTests {
+    private static final int RANGE = 2_000;
+    private static final List<Comparator<Integer>> COMPARATORS = Arrays.asList(
+            null, Comparator.reverseOrder(), Comparator.comparingInt(i -> Math.floorMod(i, 100))
+    );
+
+    private final Random random = new Random(2_947_510_386L);
+
+    private static <T> void checkNavigation(final NavigableSet<T> expected, final NavigableSet<T> actual, final List<T> probes) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+        if (!expected.isEmpty()) {
+            assertEquals(expected.first(), actual.first());
+            assertEquals(expected.last(), actual.last());
+        }
+        for (final T probe : probes) {
+            assertEquals(expected.contains(probe), actual.contains(probe), "contains " + probe);
+            assertEquals(expected.lower(probe), actual.lower(probe), "lower " + probe);
+            assertEquals(expected.floor(probe), actual.floor(probe), "floor " + probe);
+            assertEquals(expected.ceiling(probe), actual.ceiling(probe), "ceiling " + probe);
+            assertEquals(expected.higher(probe), actual.higher(probe), "higher " + probe);
+        }
+    }
+
+    private static TreeSet<Integer> treeSet(final Collection<Integer> values, final Comparator<Integer> cmp) {
+        final TreeSet<Integer> res = new TreeSet<>(cmp);
+        res.addAll(values);
+        return res;
+    }
+
+    private List<Integer> randomValues(final int size) {
+        return IntStream.range(0, size).mapToObj(i -> random.nextInt(RANGE) - RANGE / 2).collect(Collectors.toList());
+    }
+
+    private void checkViews(final NavigableSet<Integer> expected, final NavigableSet<Integer> actual, final List<Integer> probes) {
+        checkNavigation(expected, actual, probes);
+        checkNavigation(expected.descendingSet(), actual.descendingSet(), probes);
+        if (expected.isEmpty()) {
+            return;
+        }
+        final List<Integer> elements = new ArrayList<>(expected);
+        for (int i = 0; i < 10; i++) {
+            final int a = random.nextInt(elements.size());
+            final int b = random.nextInt(elements.size());
+            final Integer from = elements.get(Math.min(a, b));
+            final Integer to = elements.get(Math.max(a, b));
+            final boolean fromInclusive = random.nextBoolean();
+            final boolean toInclusive = random.nextBoolean();
+            checkNavigation(expected.subSet(from, fromInclusive, to, toInclusive),
+                    actual.subSet(from, fromInclusive, to, toInclusive), probes);
+            checkNavigation(expected.descendingSet().subSet(to, toInclusive, from, fromInclusive),
+                    actual.descendingSet().subSet(to, toInclusive, from, fromInclusive), probes);
+            checkNavigation(expected.headSet(to, true).descendingSet().headSet(from, fromInclusive),
+                    actual.headSet(to, true).descendingSet().headSet(from, fromInclusive), probes);
+        }
+    }
+
+    @Test
+    public void test1_cacheFriendlyMatchesTreeSet() {
+        final List<Integer> probes = randomValues(RANGE / 10);
+        for (final int size : new int[]{0, 1, 2, 3, 7, 8, 9, 100, RANGE}) {
+            final List<Integer> values = randomValues(size);
+            for (final Comparator<Integer> cmp : COMPARATORS) {
+                final TreeSet<Integer> expected = treeSet(values, cmp);
+                checkViews(expected, ArraySet.ofCacheFriendly(values, cmp), probes);
+                checkViews(expected, new ArraySet<>(values, cmp), probes);
+            }
+            checkViews(treeSet(values, null), ArraySet.ofCacheFriendly(values), probes);
+        }
+    }
+
+    @Test
+    public void test2_builderKeepsFirstOfEqualElements() {
+        final List<Integer> probes = randomValues(RANGE / 10);
+        for (final int size : new int[]{0, 1, 100, 50_000}) {
+            final List<Integer> values = randomValues(size);
+            for (final Comparator<Integer> cmp : COMPARATORS) {
+                final TreeSet<Integer> expected = treeSet(values, cmp);
+                final ArraySet<Integer> unsorted = new ArraySet.Builder<>(cmp).addAll(values).build();
+                checkViews(expected, unsorted, probes);
+                assertEquals(new ArrayList<>(expected), new ArrayList<>(unsorted), "first added of equal elements");
+
+                final List<Integer> sorted = new ArrayList<>(values);
+                sorted.sort(cmp);
+                final ArraySet.Builder<Integer> builder = new ArraySet.Builder<>(cmp).presorted();
+                sorted.forEach(builder::add);
+                final ArraySet<Integer> presorted = builder.build();
+                assertEquals(new ArrayList<>(treeSet(sorted, cmp)), new ArrayList<>(presorted));
+                checkViews(treeSet(sorted, cmp), ArraySet.ofCacheFriendly(presorted, cmp), probes);
+            }
+        }
+        assertTrue(new ArraySet.Builder<Integer>().build().isEmpty());
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(new ArraySet.Builder<Integer>().add(3).add(1).add(2).add(1).build()));
+    }
+
+    private static List<Integer> expectedOperation(final NavigableSet<Integer> a, final NavigableSet<Integer> b,
+                                                   final boolean onlyA, final boolean onlyB, final boolean common) {
+        final TreeSet<Integer> res = new TreeSet<>(a.comparator());
+        for (final Integer elem : a) {
+            if (b.contains(elem) ? common : onlyA) {
+                res.add(elem);
+            }
+        }
+        for (final Integer elem : b) {
+            if (!a.contains(elem) && onlyB) {
+                res.add(elem);
+            }
+        }
+        return new ArrayList<>(res);
+    }
+
+    private void checkOperations(final NavigableSet<Integer> expectedA, final ArraySet<Integer> a,
+                                 final NavigableSet<Integer> expectedB, final ArraySet<Integer> b) {
+        final List<Integer> union = expectedOperation(expectedA, expectedB, true, true, true);
+        final List<Integer> intersection = expectedOperation(expectedA, expectedB, false, false, true);
+        final List<Integer> difference = expectedOperation(expectedA, expectedB, true, false, false);
+        final List<Integer> symmetricDifference = expectedOperation(expectedA, expectedB, true, true, false);
+        assertEquals(union, new ArrayList<>(a.union(b)), "union");
+        assertEquals(intersection, new ArrayList<>(a.intersect(b)), "intersect");
+        assertEquals(difference, new ArrayList<>(a.difference(b)), "difference");
+        assertEquals(symmetricDifference, new ArrayList<>(a.symmetricDifference(b)), "symmetricDifference");
+        for (final int parts : new int[]{2, 3, 8}) {
+            assertEquals(union, new ArrayList<>(a.union(b, parts)), "union in " + parts + " parts");
+            assertEquals(intersection, new ArrayList<>(a.intersect(b, parts)), "intersect in " + parts + " parts");
+            assertEquals(difference, new ArrayList<>(a.difference(b, parts)), "difference in " + parts + " parts");
+            assertEquals(symmetricDifference, new ArrayList<>(a.symmetricDifference(b, parts)), "symmetricDifference in " + parts + " parts");
+        }
+    }
+
+    private List<Integer> randomValues(final int size, final int range) {
+        return IntStream.range(0, size).mapToObj(i -> random.nextInt(range)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void test3_setOperationsMatchTreeSet() {
+        final int[][] sizes = {{0, 0}, {0, 10}, {10, 10}, {1_000, 30}, {40_000, 40_000}, {60_000, 1_000}, {2_000, 50_000}};
+        for (final int[] size : sizes) {
+            final int range = 2 * Math.max(size[0], size[1]) + 1;
+            final List<Integer> valuesA = randomValues(size[0], range);
+            final List<Integer> valuesB = randomValues(size[1], range);
+            for (final Comparator<Integer> cmp : COMPARATORS) {
+                final TreeSet<Integer> expectedA = treeSet(valuesA, cmp);
+                final TreeSet<Integer> expectedB = treeSet(valuesB, cmp);
+                final ArraySet<Integer> a = new ArraySet<>(valuesA, cmp);
+                final ArraySet<Integer> b = ArraySet.ofCacheFriendly(valuesB, cmp);
+                checkOperations(expectedA, a, expectedB, b);
+                checkOperations(expectedB, b, expectedA, a);
+                checkOperations(expectedA.descendingSet(), (ArraySet<Integer>) a.descendingSet(),
+                        expectedB.descendingSet(), (ArraySet<Integer>) b.descendingSet());
+                if (!expectedA.isEmpty()) {
+                    final Integer middle = new ArrayList<>(expectedA).get(expectedA.size() / 2);
+                    checkOperations(expectedA.headSet(middle, true).descendingSet(),
+                            (ArraySet<Integer>) a.headSet(middle, true).descendingSet(),
+                            expectedB.descendingSet(), (ArraySet<Integer>) b.descendingSet());
+                    checkOperations(expectedB, b, expectedA.tailSet(middle, false), (ArraySet<Integer>) a.tailSet(middle, false));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test4_setOperationsRejectIncompatibleArguments() {
+        final ArraySet<Integer> natural = new ArraySet<>(List.of(1, 2, 3));
+        final ArraySet<Integer> reversed = new ArraySet<>(List.of(1, 2, 3), Comparator.reverseOrder());
+        assertThrows(IllegalArgumentException.class, () -> natural.union(reversed));
+        assertThrows(IllegalArgumentException.class, () -> natural.intersect((ArraySet<Integer>) natural.descendingSet()));
+        assertThrows(IllegalArgumentException.class, () -> natural.difference(natural, 0));
+        assertEquals(List.of(3, 2, 1), new ArrayList<>(reversed.union((ArraySet<Integer>) natural.descendingSet())));
+    }
+
+    private static void checkBatchLookups(final NavigableSet<Integer> expected, final ArraySet<Integer> actual, final List<Integer> probes) {
+        final List<Integer> floors = new ArrayList<>();
+        final List<Integer> ceilings = new ArrayList<>();
+        final BitSet contained = new BitSet();
+        for (int i = 0; i < probes.size(); i++) {
+            floors.add(expected.floor(probes.get(i)));
+            ceilings.add(expected.ceiling(probes.get(i)));
+            contained.set(i, expected.contains(probes.get(i)));
+        }
+        for (final int parts : new int[]{1, 2, 3, 8}) {
+            assertEquals(floors, actual.floorAll(probes, parts), "floorAll in " + parts + " parts");
+            assertEquals(ceilings, actual.ceilingAll(probes, parts), "ceilingAll in " + parts + " parts");
+            assertEquals(contained, actual.containsEach(probes, parts), "containsEach in " + parts + " parts");
+        }
+        assertEquals(floors, actual.floorAll(probes));
+        assertEquals(ceilings, actual.ceilingAll(probes));
+        assertEquals(contained, actual.containsEach(probes));
+    }
+
+    @Test
+    public void test5_batchLookupsMatchTreeSet() {
+        for (final int[] size : new int[][]{{0, 10}, {10, 0}, {100, 1_000}, {5_000, 25_000}, {50_000, 20}}) {
+            final int range = 2 * Math.max(size[0], size[1]) + 1;
+            final List<Integer> values = randomValues(size[0], range);
+            final List<Integer> unsorted = randomValues(size[1], range + 10);
+            for (final Comparator<Integer> cmp : COMPARATORS) {
+                final TreeSet<Integer> expected = treeSet(values, cmp);
+                final List<Integer> sorted = new ArrayList<>(unsorted);
+                sorted.sort(cmp);
+                final List<Integer> reversed = new ArrayList<>(sorted);
+                Collections.reverse(reversed);
+                for (final ArraySet<Integer> actual : List.of(new ArraySet<>(values, cmp), ArraySet.ofCacheFriendly(values, cmp))) {
+                    for (final List<Integer> probes : List.of(unsorted, sorted, reversed)) {
+                        checkBatchLookups(expected, actual, probes);
+                        checkBatchLookups(expected.descendingSet(), (ArraySet<Integer>) actual.descendingSet(), probes);
+                    }
+                    if (!expected.isEmpty()) {
+                        final Integer middle = new ArrayList<>(expected).get(expected.size() / 2);
+                        checkBatchLookups(expected.tailSet(middle, false).descendingSet(),
+                                (ArraySet<Integer>) actual.tailSet(middle, false).descendingSet(), reversed);
+                    }
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ArraySet<>(List.of(1)).floorAll(List.of(1), 0));
+    }
+
+    private static void checkRanks(final NavigableSet<Integer> expected, final ArraySet<Integer> actual, final List<Integer> probes) {
+        final List<Integer> sorted = new ArrayList<>(expected);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), actual.select(i));
+            assertEquals(i, actual.indexOf(sorted.get(i)));
+            assertEquals(i, actual.rank(sorted.get(i)));
+        }
+        for (final Integer probe : probes) {
+            final Integer lower = expected.lower(probe);
+            final int rank = lower == null ? 0 : Collections.binarySearch(sorted, lower, expected.comparator()) + 1;
+            assertEquals(rank, actual.rank(probe), "rank " + probe);
+            if (!expected.contains(probe)) {
+                assertEquals(-1, actual.indexOf(probe), "indexOf " + probe);
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> actual.select(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> actual.select(sorted.size()));
+    }
+
+    @Test
+    public void test6_ranksMatchTreeSet() {
+        final List<Integer> probes = randomValues(RANGE / 10);
+        for (final int size : new int[]{0, 1, 7, 100, RANGE}) {
+            final List<Integer> values = randomValues(size);
+            for (final Comparator<Integer> cmp : COMPARATORS) {
+                final TreeSet<Integer> expected = treeSet(values, cmp);
+                for (final ArraySet<Integer> actual : List.of(new ArraySet<>(values, cmp), ArraySet.ofCacheFriendly(values, cmp))) {
+                    checkRanks(expected, actual, probes);
+                    checkRanks(expected.descendingSet(), (ArraySet<Integer>) actual.descendingSet(), probes);
+                    for (final Integer probe : probes.subList(0, 10)) {
+                        checkRanks(expected.tailSet(probe, true), (ArraySet<Integer>) actual.tailSet(probe, true), probes);
+                        checkRanks(expected.headSet(probe, false).descendingSet(),
+                                (ArraySet<Integer>) actual.headSet(probe, false).descendingSet(), probes);
+                    }
+                }
+            }
+        }
+    }
+}
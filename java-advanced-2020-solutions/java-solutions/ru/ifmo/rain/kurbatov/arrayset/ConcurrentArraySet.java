@@ -0,0 +1,275 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe {@link NavigableSet} for workloads where reads vastly outnumber writes.
+ * Elements are kept in immutable {@link ArraySet} snapshot published atomically:
+ * reads are wait-free and never lock, each write builds new snapshot in linear time and installs it with CAS.
+ * Batch of changes made by {@link #update(Collection, Collection)} costs a single snapshot swap.
+ * Polls publish window of the same backing array until it is less than half used, so they take amortized constant time.
+ * Iterators and views are made from the current snapshot and are not affected by later changes.
+ *
+ * @param <T> type of elements
+ */
+public class ConcurrentArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
+    private final Comparator<? super T> comparator;
+    private final AtomicReference<Snapshot<T>> snapshot;
+
+    public ConcurrentArraySet() {
+        this((Comparator<? super T>) null);
+    }
+
+    public ConcurrentArraySet(final Comparator<? super T> cmp) {
+        this(Collections.emptyList(), cmp);
+    }
+
+    public ConcurrentArraySet(final Collection<? extends T> st) {
+        this(st, null);
+    }
+
+    public ConcurrentArraySet(final Collection<? extends T> st, final Comparator<? super T> cmp) {
+        comparator = cmp;
+        snapshot = new AtomicReference<>(new Snapshot<>(SortedArrays.sortedUnique(st, cmp), cmp));
+    }
+
+    /**
+     * Returns current immutable snapshot of set.
+     *
+     * @return immutable set of current elements
+     */
+    public NavigableSet<T> snapshot() {
+        return snapshot.get().set;
+    }
+
+    /**
+     * Replaces all elements of set with given ones.
+     *
+     * @param st new elements
+     */
+    public void replace(final Collection<? extends T> st) {
+        snapshot.set(new Snapshot<>(SortedArrays.sortedUnique(st, comparator), comparator));
+    }
+
+    /**
+     * Removes and adds given elements atomically, publishing single new snapshot.
+     * Elements present in both collections are contained in set after the call.
+     *
+     * @param toAdd elements to add
+     * @param toRemove elements to remove
+     * @return {@code true} if set was changed
+     */
+    public boolean update(final Collection<? extends T> toAdd, final Collection<? extends T> toRemove) {
+        final Object[] adds = SortedArrays.sortedUnique(toAdd, comparator);
+        final Object[] removes = SortedArrays.sortedUnique(toRemove, comparator);
+        while (true) {
+            final Snapshot<T> current = snapshot.get();
+            final Object[] next = SortedArrays.update(current.set, adds, removes, comparator);
+            if (next == null) {
+                return false;
+            }
+            if (snapshot.compareAndSet(current, new Snapshot<>(next, comparator))) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean add(final T elem) {
+        return update(List.of(elem), List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean remove(final Object elem) {
+        return update(List.of(), List.of((T) elem));
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends T> st) {
+        return update(st, List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean removeAll(final Collection<?> st) {
+        return update(List.of(), (Collection<? extends T>) st);
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> st) {
+        while (true) {
+            final Snapshot<T> current = snapshot.get();
+            final List<T> kept = new ArrayList<>();
+            for (final T elem : current.set) {
+                if (st.contains(elem)) {
+                    kept.add(elem);
+                }
+            }
+            if (kept.size() == current.set.size()) {
+                return false;
+            }
+            if (snapshot.compareAndSet(current, new Snapshot<>(kept.toArray(), comparator))) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        snapshot.set(new Snapshot<>(new Object[0], comparator));
+    }
+
+    @Override
+    public T pollFirst() {
+        while (true) {
+            final Snapshot<T> current = snapshot.get();
+            if (current.set.isEmpty()) {
+                return null;
+            }
+            if (snapshot.compareAndSet(current, current.window(current.from + 1, current.to))) {
+                return current.set.first();
+            }
+        }
+    }
+
+    @Override
+    public T pollLast() {
+        while (true) {
+            final Snapshot<T> current = snapshot.get();
+            if (current.set.isEmpty()) {
+                return null;
+            }
+            if (snapshot.compareAndSet(current, current.window(current.from, current.to - 1))) {
+                return current.set.last();
+            }
+        }
+    }
+
+    /**
+     * Immutable set over window {@code [from, to)} of sorted array of distinct elements.
+     */
+    private static final class Snapshot<T> {
+        private final Object[] array;
+        private final int from;
+        private final int to;
+        private final ArraySet<T> set;
+
+        Snapshot(final Object[] array, final Comparator<? super T> cmp) {
+            this(array, 0, array.length, ArraySet.ofSortedArray(array, cmp));
+        }
+
+        private Snapshot(final Object[] array, final int from, final int to, final ArraySet<T> set) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+            this.set = set;
+        }
+
+        /**
+         * Returns snapshot of narrower window, compacted into new array once less than half of current one is used.
+         */
+        Snapshot<T> window(final int from, final int to) {
+            if (2 * (to - from) < array.length) {
+                return new Snapshot<>(Arrays.copyOfRange(array, from, to), set.comparator());
+            }
+            return new Snapshot<>(array, from, to, ArraySet.ofSortedArray(array, from, to, set.comparator()));
+        }
+    }
+
+    @Override
+    public T lower(final T elem) {
+        return snapshot.get().set.lower(elem);
+    }
+
+    @Override
+    public T floor(final T elem) {
+        return snapshot.get().set.floor(elem);
+    }
+
+    @Override
+    public T ceiling(final T elem) {
+        return snapshot.get().set.ceiling(elem);
+    }
+
+    @Override
+    public T higher(final T elem) {
+        return snapshot.get().set.higher(elem);
+    }
+
+    @Override
+    public boolean contains(final Object elem) {
+        return snapshot.get().set.contains(elem);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.get().set.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return snapshot.get().set.isEmpty();
+    }
+
+    @Override
+    public T first() {
+        return snapshot.get().set.first();
+    }
+
+    @Override
+    public T last() {
+        return snapshot.get().set.last();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot.get().set.iterator();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return snapshot.get().set.descendingIterator();
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return snapshot.get().set.descendingSet();
+    }
+
+    @Override
+    public NavigableSet<T> subSet(final T fromElement, final boolean fromInclusive, final T toElement, final boolean toInclusive) {
+        return snapshot.get().set.subSet(fromElement, fromInclusive, toElement, toInclusive);
+    }
+
+    @Override
+    public NavigableSet<T> headSet(final T toElement, final boolean inclusive) {
+        return snapshot.get().set.headSet(toElement, inclusive);
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(final T fromElement, final boolean inclusive) {
+        return snapshot.get().set.tailSet(fromElement, inclusive);
+    }
+
+    @Override
+    public SortedSet<T> subSet(final T fromElement, final T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(final T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(final T fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return comparator;
+    }
+}
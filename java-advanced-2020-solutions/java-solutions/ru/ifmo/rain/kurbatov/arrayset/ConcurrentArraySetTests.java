@@ -0,0 +1,125 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentArraySetTests {
+    private static final int RANGE = 2_000;
+
+    private final Random random = new Random(8_416_209_733L);
+
+    private static void checkNavigation(final NavigableSet<Integer> expected, final NavigableSet<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+        if (!expected.isEmpty()) {
+            assertEquals(expected.first(), actual.first());
+            assertEquals(expected.last(), actual.last());
+        }
+        for (int probe = -2; probe <= RANGE + 1; probe += 7) {
+            assertEquals(expected.contains(probe), actual.contains(probe), "contains " + probe);
+            assertEquals(expected.lower(probe), actual.lower(probe), "lower " + probe);
+            assertEquals(expected.floor(probe), actual.floor(probe), "floor " + probe);
+            assertEquals(expected.ceiling(probe), actual.ceiling(probe), "ceiling " + probe);
+            assertEquals(expected.higher(probe), actual.higher(probe), "higher " + probe);
+        }
+    }
+
+    private List<Integer> randomValues(final int size) {
+        return IntStream.range(0, size).mapToObj(i -> random.nextInt(RANGE)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void test1_mutationsMatchTreeSet() {
+        final TreeSet<Integer> expected = new TreeSet<>(Comparator.reverseOrder());
+        final ConcurrentArraySet<Integer> actual = new ConcurrentArraySet<>(Comparator.reverseOrder());
+        for (int i = 0; i < 5_000; i++) {
+            final int value = random.nextInt(RANGE);
+            switch (random.nextInt(6)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.add(value), actual.add(value), "add " + value);
+                    break;
+                case 2:
+                    assertEquals(expected.remove(value), actual.remove(value), "remove " + value);
+                    break;
+                case 3:
+                    assertEquals(expected.pollFirst(), actual.pollFirst());
+                    break;
+                case 4:
+                    assertEquals(expected.pollLast(), actual.pollLast());
+                    break;
+                default:
+                    final List<Integer> toAdd = randomValues(10);
+                    final List<Integer> toRemove = randomValues(10);
+                    final Set<Integer> before = new HashSet<>(expected);
+                    expected.removeAll(toRemove);
+                    expected.addAll(toAdd);
+                    assertEquals(!before.equals(expected), actual.update(toAdd, toRemove));
+            }
+            if (i % 500 == 0) {
+                checkNavigation(expected, actual);
+            }
+        }
+        checkNavigation(expected, actual);
+
+        final List<Integer> retained = randomValues(RANGE / 2);
+        assertEquals(expected.retainAll(retained), actual.retainAll(retained));
+        checkNavigation(expected, actual);
+        checkNavigation(expected.descendingSet(), actual.descendingSet());
+    }
+
+    @Test
+    public void test2_pollsKeepSnapshotsIntact() {
+        final List<Integer> values = IntStream.range(0, RANGE).boxed().collect(Collectors.toList());
+        final TreeSet<Integer> expected = new TreeSet<>(values);
+        final ConcurrentArraySet<Integer> actual = new ConcurrentArraySet<>(values);
+        final NavigableSet<Integer> initial = actual.snapshot();
+        while (!expected.isEmpty()) {
+            final NavigableSet<Integer> before = actual.snapshot();
+            final int size = before.size();
+            assertEquals(expected.pollFirst(), actual.pollFirst());
+            assertEquals(expected.pollLast(), actual.pollLast());
+            assertEquals(size, before.size());
+            if (expected.size() % 100 == 0) {
+                checkNavigation(expected, actual);
+                checkNavigation(expected, actual.snapshot());
+            }
+        }
+        assertNull(actual.pollFirst());
+        assertNull(actual.pollLast());
+        assertEquals(values, new ArrayList<>(initial));
+    }
+
+    @Test
+    public void test3_concurrentPollsTakeEveryElementOnce() throws InterruptedException {
+        final int size = 100_000;
+        final ConcurrentArraySet<Integer> set = new ConcurrentArraySet<>(IntStream.range(0, size).boxed().collect(Collectors.toList()));
+        final Set<Integer> polled = ConcurrentHashMap.newKeySet();
+        final AtomicInteger polls = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final boolean first = t % 2 == 0;
+            threads.add(new Thread(() -> {
+                Integer value;
+                while ((value = first ? set.pollFirst() : set.pollLast()) != null) {
+                    polled.add(value);
+                    polls.incrementAndGet();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(set.isEmpty());
+        assertEquals(size, polls.get());
+        assertEquals(size, polled.size());
+    }
+}
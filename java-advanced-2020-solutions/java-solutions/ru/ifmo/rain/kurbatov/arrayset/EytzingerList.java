@@ -0,0 +1,103 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import java.util.*;
+
+/**
+ * Immutable sorted list which keeps elements in BFS (Eytzinger) order of implicit binary search tree.
+ * Search walks one root-to-leaf path whose top levels are shared by all lookups and stay in cache,
+ * and its loop has no data-dependent branches. Positional access goes through in-order permutation.
+ *
+ * @param <T> type of elements
+ */
+class EytzingerList<T> extends AbstractList<T> implements RandomAccess {
+    private final Object[] tree;
+    private final int[] order;
+    private final int[] rank;
+    private final Comparator<? super T> comparator;
+    private final int from;
+    private final int to;
+
+    /**
+     * Makes list of given distinct elements sorted by {@code comparator}.
+     */
+    EytzingerList(final Object[] sorted, final Comparator<? super T> comparator) {
+        tree = new Object[sorted.length + 1];
+        order = new int[sorted.length];
+        rank = new int[sorted.length + 1];
+        this.comparator = comparator;
+        from = 0;
+        to = sorted.length;
+        fill(sorted, 0, 1);
+    }
+
+    private EytzingerList(final EytzingerList<T> list, final int from, final int to) {
+        tree = list.tree;
+        order = list.order;
+        rank = list.rank;
+        comparator = list.comparator;
+        this.from = from;
+        this.to = to;
+    }
+
+    private int fill(final Object[] sorted, int pos, final int k) {
+        if (0 < k && k < tree.length) {
+            pos = fill(sorted, pos, 2 * k);
+            tree[k] = sorted[pos];
+            order[pos] = k;
+            rank[k] = pos++;
+            pos = fill(sorted, pos, 2 * k + 1);
+        }
+        return pos;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(final Object a, final T b) {
+        return comparator == null ? ((Comparable<? super T>) a).compareTo(b) : comparator.compare((T) a, b);
+    }
+
+    /**
+     * Returns tree index of the first element of whole storage which is not less than {@code elem}, 0 if there is none.
+     */
+    private int lowerBound(final T elem) {
+        int k = 1;
+        while (k < tree.length) {
+            k = 2 * k + (compare(tree[k], elem) >>> 31);
+        }
+        // strip trailing right turns and the last left one
+        return k >>> Integer.numberOfTrailingZeros(~k) + 1;
+    }
+
+    /**
+     * Searches for element in this list.
+     * Result has the same meaning as in {@link Collections#binarySearch(List, Object, Comparator)}.
+     */
+    int binarySearch(final T elem) {
+        final int k = lowerBound(elem);
+        final int pos = k == 0 ? order.length : rank[k];
+        if (pos < from) {
+            return -1;
+        }
+        if (pos >= to) {
+            return -(to - from) - 1;
+        }
+        return compare(tree[k], elem) == 0 ? pos - from : -(pos - from) - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(final int pos) {
+        Objects.checkIndex(pos, size());
+        return (T) tree[order[from + pos]];
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public List<T> subList(final int fromIndex, final int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size());
+        return new EytzingerList<>(this, from + fromIndex, from + toIndex);
+    }
+}
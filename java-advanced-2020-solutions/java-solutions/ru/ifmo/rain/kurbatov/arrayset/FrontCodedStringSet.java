@@ -0,0 +1,259 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+/**
+ * Immutable {@link NavigableSet} of strings for large dictionaries with long common prefixes.
+ * Strings are front-coded in blocks: the first string of each block is kept as is,
+ * every next one is stored as length of prefix shared with the previous string and the rest of chars.
+ * Search looks up block by its first string and decodes only that block.
+ * Views are windows of the same encoded data.
+ */
+public class FrontCodedStringSet extends IndexedArraySet<String> {
+    private static final int BLOCK = 16;
+
+    private final Storage storage;
+
+    public FrontCodedStringSet(final Collection<String> st) {
+        this(st, null);
+    }
+
+    public FrontCodedStringSet(final Collection<String> st, final Comparator<? super String> cmp) {
+        this(new Storage(SortedArrays.sortedUnique(st, cmp), cmp));
+    }
+
+    private FrontCodedStringSet(final Storage storage) {
+        this(storage, 0, storage.size, false);
+    }
+
+    private FrontCodedStringSet(final Storage storage, final int from, final int to, final boolean descending) {
+        super(from, to, descending);
+        this.storage = storage;
+    }
+
+    private static class Storage {
+        private final Comparator<? super String> comparator;
+        private final int size;
+        private final String[] headers;
+        private final int[] offsets;
+        private final byte[] data;
+        private final int maxLength;
+
+        Storage(final Object[] sorted, final Comparator<? super String> comparator) {
+            this.comparator = comparator;
+            size = sorted.length;
+            headers = new String[(size + BLOCK - 1) / BLOCK];
+            offsets = new int[headers.length];
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            String prev = null;
+            int maxLength = 0;
+            for (int i = 0; i < size; i++) {
+                final String s = (String) sorted[i];
+                if (i % BLOCK == 0) {
+                    headers[i / BLOCK] = s;
+                    offsets[i / BLOCK] = out.size();
+                } else {
+                    final int lcp = commonPrefix(prev, s);
+                    writeVarint(out, lcp);
+                    writeVarint(out, s.length() - lcp);
+                    for (int j = lcp; j < s.length(); j++) {
+                        writeVarint(out, s.charAt(j));
+                    }
+                }
+                prev = s;
+                maxLength = Math.max(maxLength, s.length());
+            }
+            data = out.toByteArray();
+            this.maxLength = maxLength;
+        }
+
+        private static int commonPrefix(final String a, final String b) {
+            final int length = Math.min(a.length(), b.length());
+            int res = 0;
+            while (res < length && a.charAt(res) == b.charAt(res)) {
+                res++;
+            }
+            return res;
+        }
+
+        private static void writeVarint(final ByteArrayOutputStream out, int value) {
+            while ((value & ~0x7F) != 0) {
+                out.write(value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+
+        int compare(final String a, final String b) {
+            return comparator == null ? a.compareTo(b) : comparator.compare(a, b);
+        }
+    }
+
+    /**
+     * Decoder walking strings of storage in ascending order.
+     */
+    private class Cursor {
+        private final char[] current = new char[storage.maxLength];
+        private int length;
+        private int index;
+        private int offset;
+
+        Cursor(final int index) {
+            start(index / BLOCK);
+            while (this.index < index) {
+                advance();
+            }
+        }
+
+        private void start(final int block) {
+            final String header = storage.headers[block];
+            index = block * BLOCK;
+            offset = storage.offsets[block];
+            length = header.length();
+            header.getChars(0, length, current, 0);
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = storage.data[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        void advance() {
+            if ((index + 1) % BLOCK == 0) {
+                start((index + 1) / BLOCK);
+                return;
+            }
+            length = readVarint();
+            final int end = length + readVarint();
+            final byte[] data = storage.data;
+            while (length < end) {
+                final byte b = data[offset];
+                if (b >= 0) {
+                    current[length++] = (char) b;
+                    offset++;
+                } else {
+                    current[length++] = (char) readVarint();
+                }
+            }
+            index++;
+        }
+
+        String get() {
+            return new String(current, 0, length);
+        }
+
+        int compareTo(final String elem) {
+            if (storage.comparator != null) {
+                return storage.comparator.compare(get(), elem);
+            }
+            final int common = Math.min(length, elem.length());
+            for (int i = 0; i < common; i++) {
+                final int c = current[i] - elem.charAt(i);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return length - elem.length();
+        }
+    }
+
+    @Override
+    String element(final int pos) {
+        if (pos % BLOCK == 0) {
+            return storage.headers[pos / BLOCK];
+        }
+        return new Cursor(pos).get();
+    }
+
+    /**
+     * Returns position of the first string of whole storage not less than given one, negated and decremented if not equal.
+     */
+    private int searchAll(final String elem) {
+        int l = 0;
+        int r = storage.headers.length - 1;
+        while (l <= r) {
+            final int m = (l + r) >>> 1;
+            final int c = storage.compare(storage.headers[m], elem);
+            if (c < 0) {
+                l = m + 1;
+            } else if (c > 0) {
+                r = m - 1;
+            } else {
+                return m * BLOCK;
+            }
+        }
+        if (r < 0) {
+            return -1;
+        }
+        final int end = Math.min(storage.size, (r + 1) * BLOCK);
+        final Cursor cursor = new Cursor(r * BLOCK);
+        while (cursor.index + 1 < end) {
+            cursor.advance();
+            final int c = cursor.compareTo(elem);
+            if (c >= 0) {
+                return c == 0 ? cursor.index : -cursor.index - 1;
+            }
+        }
+        return -end - 1;
+    }
+
+    @Override
+    int search(final String elem) {
+        final int pos = searchAll(elem);
+        final int bound = pos >= 0 ? pos : -pos - 1;
+        if (bound < from) {
+            return -from - 1;
+        }
+        if (bound >= to) {
+            return -to - 1;
+        }
+        return pos;
+    }
+
+    @Override
+    FrontCodedStringSet view(final int from, final int to, final boolean descending) {
+        return new FrontCodedStringSet(storage, from, to, descending);
+    }
+
+    @Override
+    Comparator<? super String> ascendingComparator() {
+        return storage.comparator;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        if (descending || isEmpty()) {
+            return super.iterator();
+        }
+        return new Iterator<>() {
+            private final Cursor cursor = new Cursor(from);
+            private boolean started;
+
+            @Override
+            public boolean hasNext() {
+                return (started ? cursor.index + 1 : cursor.index) < to;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements");
+                }
+                if (started) {
+                    cursor.advance();
+                }
+                started = true;
+                return cursor.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrontCodedStringSetTests {
+    private final Random random = new Random(5_203_117_846L);
+
+    /**
+     * Makes strings with long shared prefixes, empty string and chars beyond single varint byte.
+     */
+    private List<String> words(final int count) {
+        final String[] prefixes = {"", "a", "ab", "abc", "http://example.com/path/", "\u0436\u0436", "\uD83D\uDE00"};
+        final List<String> res = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final StringBuilder sb = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+            final int length = random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) (random.nextBoolean() ? 'a' + random.nextInt(3) : 0x400 + random.nextInt(3)));
+            }
+            res.add(sb.toString());
+        }
+        return res;
+    }
+
+    private void checkLookups(final NavigableSet<String> expected, final NavigableSet<String> actual, final List<String> probes) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+        if (!expected.isEmpty()) {
+            assertEquals(expected.first(), actual.first());
+            assertEquals(expected.last(), actual.last());
+        }
+        for (final String probe : probes) {
+            assertEquals(expected.contains(probe), actual.contains(probe), "contains " + probe);
+            assertEquals(expected.lower(probe), actual.lower(probe), "lower " + probe);
+            assertEquals(expected.floor(probe), actual.floor(probe), "floor " + probe);
+            assertEquals(expected.ceiling(probe), actual.ceiling(probe), "ceiling " + probe);
+            assertEquals(expected.higher(probe), actual.higher(probe), "higher " + probe);
+        }
+    }
+
+    @Test
+    public void test1_lookupsMatchTreeSet() {
+        final List<String> words = words(3_000);
+        final List<String> probes = words(500);
+        for (final Comparator<String> cmp : Arrays.asList(null, Comparator.<String>reverseOrder(), String.CASE_INSENSITIVE_ORDER)) {
+            final TreeSet<String> expected = new TreeSet<>(cmp);
+            expected.addAll(words);
+            final FrontCodedStringSet actual = new FrontCodedStringSet(words, cmp);
+            checkLookups(expected, actual, probes);
+            checkLookups(expected.descendingSet(), actual.descendingSet(), probes);
+        }
+    }
+
+    @Test
+    public void test2_viewsAndRanks() {
+        final List<String> words = words(2_000);
+        final TreeSet<String> expected = new TreeSet<>(words);
+        final FrontCodedStringSet actual = new FrontCodedStringSet(words);
+        final List<String> probes = words(200);
+        for (int i = 0; i < 50; i++) {
+            String from = probes.get(random.nextInt(probes.size()));
+            String to = probes.get(random.nextInt(probes.size()));
+            if (from.compareTo(to) > 0) {
+                final String tmp = from;
+                from = to;
+                to = tmp;
+            }
+            final boolean fromInclusive = random.nextBoolean();
+            final boolean toInclusive = random.nextBoolean();
+            checkLookups(expected.subSet(from, fromInclusive, to, toInclusive), actual.subSet(from, fromInclusive, to, toInclusive), probes);
+            checkLookups(expected.headSet(to, toInclusive).descendingSet(), actual.headSet(to, toInclusive).descendingSet(), probes);
+            checkLookups(expected.tailSet(from, fromInclusive), actual.tailSet(from, fromInclusive), probes);
+        }
+
+        final List<String> sorted = new ArrayList<>(expected);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), actual.select(i));
+            assertEquals(i, actual.indexOf(sorted.get(i)));
+            assertEquals(i, actual.rank(sorted.get(i)));
+        }
+        for (final String probe : probes) {
+            assertEquals(expected.headSet(probe, false).size(), actual.rank(probe), "rank " + probe);
+            if (!expected.contains(probe)) {
+                assertEquals(-1, actual.indexOf(probe));
+            }
+        }
+    }
+
+    @Test
+    public void test3_emptyAndImmutable() {
+        final FrontCodedStringSet empty = new FrontCodedStringSet(List.of());
+        assertTrue(empty.isEmpty());
+        assertNull(empty.ceiling("a"));
+        assertFalse(empty.contains(""));
+        assertThrows(NoSuchElementException.class, empty::first);
+
+        final FrontCodedStringSet set = new FrontCodedStringSet(List.of("b", "a", "b", ""));
+        assertEquals(List.of("", "a", "b"), new ArrayList<>(set));
+        assertThrows(UnsupportedOperationException.class, () -> set.add("c"));
+        assertThrows(UnsupportedOperationException.class, set::pollFirst);
+    }
+}
@@ -0,0 +1,252 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import java.util.*;
+
+/**
+ * Base of immutable {@link NavigableSet}s over sorted random-access storage.
+ * Every view is a window {@code [from, to)} of the same storage, possibly traversed in reverse order,
+ * so {@code headSet}, {@code tailSet}, {@code subSet} and {@code descendingSet} never copy elements.
+ *
+ * @param <T> type of elements
+ */
+abstract class IndexedArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
+    protected final int from;
+    protected final int to;
+    protected final boolean descending;
+
+    IndexedArraySet(final int from, final int to, final boolean descending) {
+        this.from = from;
+        this.to = to;
+        this.descending = descending;
+    }
+
+    /**
+     * Returns element stored at given absolute position of storage.
+     */
+    abstract T element(int pos);
+
+    /**
+     * Searches for element in {@code [from, to)} of storage in ascending order.
+     * Result has the same meaning as in {@link Arrays#binarySearch(Object[], int, int, Object)}.
+     */
+    abstract int search(T elem);
+
+    /**
+     * Makes view of the same storage.
+     */
+    abstract IndexedArraySet<T> view(int from, int to, boolean descending);
+
+    /**
+     * Returns comparator storage is sorted by, {@code null} for natural ordering.
+     */
+    abstract Comparator<? super T> ascendingComparator();
+
+    int bound(final int pos, final boolean inclusive, final boolean greater) {
+        final boolean up = greater != descending;
+        if (pos >= 0) {
+            if (inclusive) {
+                return pos;
+            } else {
+                return (up ? pos + 1 : pos - 1);
+            }
+        }
+        return (up ? ~pos : ~pos - 1);
+    }
+
+    private int getBound(final T elem, final boolean inclusive, final boolean greater) {
+        return bound(search(Objects.requireNonNull(elem)), inclusive, greater);
+    }
+
+    boolean inRange(final int pos) {
+        return from <= pos && pos < to;
+    }
+
+    private T getElem(final int pos) {
+        return (inRange(pos) ? element(pos) : null);
+    }
+
+    @Override
+    public T lower(final T elem) {
+        return getElem(getBound(elem, false, false));
+    }
+
+    @Override
+    public T floor(final T elem) {
+        return getElem(getBound(elem, true, false));
+    }
+
+    @Override
+    public T ceiling(final T elem) {
+        return getElem(getBound(elem, true, true));
+    }
+
+    @Override
+    public T higher(final T elem) {
+        return getElem(getBound(elem, false, true));
+    }
+
+    @Override
+    public T pollFirst() {
+        throw new UnsupportedOperationException("Set is immutable");
+    }
+
+    @Override
+    public T pollLast() {
+        throw new UnsupportedOperationException("Set is immutable");
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int pos = descending ? to - 1 : from;
+
+            @Override
+            public boolean hasNext() {
+                return inRange(pos);
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements");
+                }
+                final T elem = element(pos);
+                pos += descending ? -1 : 1;
+                return elem;
+            }
+        };
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return view(from, to, !descending);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return descendingSet().iterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(final T a, final T b) {
+        final Comparator<? super T> cmp = ascendingComparator();
+        final int res = cmp == null ? ((Comparable<? super T>) a).compareTo(b) : cmp.compare(a, b);
+        return descending ? -res : res;
+    }
+
+    @Override
+    public NavigableSet<T> subSet(final T fromElement, final boolean fromInclusive, final T toElement, final boolean toInclusive) {
+        if (compare(fromElement, toElement) > 0) {
+            throw new IllegalArgumentException("Incorrect args order");
+        }
+        return tailSet(fromElement, fromInclusive).headSet(toElement, toInclusive);
+    }
+
+    @Override
+    public NavigableSet<T> headSet(final T toElement, final boolean inclusive) {
+        final int pos = getBound(toElement, inclusive, false);
+        return descending ? view(pos, to, true) : view(from, pos + 1, false);
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(final T fromElement, final boolean inclusive) {
+        final int pos = getBound(fromElement, inclusive, true);
+        return descending ? view(from, pos + 1, true) : view(pos, to, false);
+    }
+
+    @Override
+    public SortedSet<T> subSet(final T fromElement, final T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(final T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(final T fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        final Comparator<? super T> cmp = ascendingComparator();
+        return descending ? Collections.reverseOrder(cmp) : cmp;
+    }
+
+    void checkEmpty() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Collection is empty");
+        }
+    }
+
+    int firstPos() {
+        checkEmpty();
+        return descending ? to - 1 : from;
+    }
+
+    int lastPos() {
+        checkEmpty();
+        return descending ? from : to - 1;
+    }
+
+    @Override
+    public T first() {
+        return element(firstPos());
+    }
+
+    @Override
+    public T last() {
+        return element(lastPos());
+    }
+
+    /**
+     * Returns number of elements of this set less than given one, i.e. position it would have in this set.
+     *
+     * @param elem element to look for
+     * @return number of elements less than {@code elem}
+     */
+    public int rank(final T elem) {
+        final int pos = getBound(elem, false, false);
+        return descending ? to - pos : pos - from + 1;
+    }
+
+    /**
+     * Returns element at given position of this set.
+     *
+     * @param pos position of element, from {@code 0} to {@code size() - 1}
+     * @return {@code pos}-th element
+     * @throws IndexOutOfBoundsException if there is no such position
+     */
+    public T select(final int pos) {
+        Objects.checkIndex(pos, size());
+        return element(descending ? to - 1 - pos : from + pos);
+    }
+
+    /**
+     * Returns position of given element in this set.
+     *
+     * @param elem element to look for
+     * @return position of {@code elem} or {@code -1} if it is not contained in set
+     */
+    @SuppressWarnings("unchecked")
+    public int indexOf(final Object elem) {
+        final int pos = search((T) Objects.requireNonNull(elem));
+        if (pos < 0) {
+            return -1;
+        }
+        return descending ? to - 1 - pos : pos - from;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean contains(final Object elem) {
+        return search((T) Objects.requireNonNull(elem)) >= 0;
+    }
+}
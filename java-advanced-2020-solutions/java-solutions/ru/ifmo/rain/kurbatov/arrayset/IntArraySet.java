@@ -0,0 +1,178 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import java.util.*;
+
+/**
+ * Immutable {@link NavigableSet} of {@code int} values backed by sorted {@code int[]}.
+ * Besides {@link NavigableSet} methods it provides primitive lookups which never box.
+ */
+public class IntArraySet extends IndexedArraySet<Integer> {
+    private final int[] data;
+
+    public IntArraySet() {
+        this(new int[0]);
+    }
+
+    public IntArraySet(final Collection<? extends Integer> st) {
+        this(unique(st.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    private IntArraySet(final int[] sorted) {
+        this(sorted, 0, sorted.length, false);
+    }
+
+    private IntArraySet(final int[] data, final int from, final int to, final boolean descending) {
+        super(from, to, descending);
+        this.data = data;
+    }
+
+    /**
+     * Makes set of given values. Values need not to be sorted or distinct.
+     *
+     * @param values values of set
+     * @return set of given values
+     */
+    public static IntArraySet of(final int... values) {
+        return new IntArraySet(unique(values.clone()));
+    }
+
+    private static int[] unique(final int[] values) {
+        Arrays.sort(values);
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[size - 1]) {
+                values[size++] = values[i];
+            }
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    Integer element(final int pos) {
+        return data[pos];
+    }
+
+    @Override
+    int search(final Integer elem) {
+        return Arrays.binarySearch(data, from, to, elem);
+    }
+
+    @Override
+    IntArraySet view(final int from, final int to, final boolean descending) {
+        return new IntArraySet(data, from, to, descending);
+    }
+
+    @Override
+    Comparator<? super Integer> ascendingComparator() {
+        return null;
+    }
+
+    private int getElem(final int pos, final int absent) {
+        return (inRange(pos) ? data[pos] : absent);
+    }
+
+    /**
+     * Returns the greatest value strictly less than given one, or {@code absent} if there is no such value.
+     *
+     * @param elem value to look for
+     * @param absent value to return if there is no such value
+     * @return found value or {@code absent}
+     */
+    public int lowerInt(final int elem, final int absent) {
+        return getElem(bound(Arrays.binarySearch(data, from, to, elem), false, false), absent);
+    }
+
+    /**
+     * Returns the greatest value less than or equal to given one, or {@code absent} if there is no such value.
+     *
+     * @param elem value to look for
+     * @param absent value to return if there is no such value
+     * @return found value or {@code absent}
+     */
+    public int floorInt(final int elem, final int absent) {
+        return getElem(bound(Arrays.binarySearch(data, from, to, elem), true, false), absent);
+    }
+
+    /**
+     * Returns the least value greater than or equal to given one, or {@code absent} if there is no such value.
+     *
+     * @param elem value to look for
+     * @param absent value to return if there is no such value
+     * @return found value or {@code absent}
+     */
+    public int ceilingInt(final int elem, final int absent) {
+        return getElem(bound(Arrays.binarySearch(data, from, to, elem), true, true), absent);
+    }
+
+    /**
+     * Returns the least value strictly greater than given one, or {@code absent} if there is no such value.
+     *
+     * @param elem value to look for
+     * @param absent value to return if there is no such value
+     * @return found value or {@code absent}
+     */
+    public int higherInt(final int elem, final int absent) {
+        return getElem(bound(Arrays.binarySearch(data, from, to, elem), false, true), absent);
+    }
+
+    /**
+     * Checks whether set contains given value.
+     *
+     * @param elem value to look for
+     * @return {@code true} if set contains {@code elem}
+     */
+    public boolean containsInt(final int elem) {
+        return Arrays.binarySearch(data, from, to, elem) >= 0;
+    }
+
+    public int firstInt() {
+        return data[firstPos()];
+    }
+
+    public int lastInt() {
+        return data[lastPos()];
+    }
+
+    /**
+     * Returns iterator over values of set without boxing.
+     *
+     * @return primitive iterator in order of set
+     */
+    public PrimitiveIterator.OfInt intIterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int pos = descending ? to - 1 : from;
+
+            @Override
+            public boolean hasNext() {
+                return inRange(pos);
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements");
+                }
+                final int elem = data[pos];
+                pos += descending ? -1 : 1;
+                return elem;
+            }
+        };
+    }
+
+    /**
+     * Returns values of set as array in order of set.
+     *
+     * @return new array of values
+     */
+    public int[] toIntArray() {
+        final int[] res = Arrays.copyOfRange(data, from, to);
+        if (descending) {
+            for (int i = 0, j = res.length - 1; i < j; i++, j--) {
+                final int tmp = res[i];
+                res[i] = res[j];
+                res[j] = tmp;
+            }
+        }
+        return res;
+    }
+}
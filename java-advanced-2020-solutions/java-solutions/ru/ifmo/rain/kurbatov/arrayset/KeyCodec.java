@@ -0,0 +1,76 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encoding of keys as fixed-width records, used by {@link MappedArraySet}.
+ * Codecs use absolute {@link ByteBuffer} accessors only, so one buffer may be read concurrently.
+ *
+ * @param <T> type of keys
+ */
+public interface KeyCodec<T> {
+    /**
+     * Big-endian 4-byte {@code int} keys.
+     */
+    KeyCodec<Integer> INT = new KeyCodec<>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public Integer read(final ByteBuffer buffer, final int offset) {
+            return buffer.getInt(offset);
+        }
+
+        @Override
+        public void write(final ByteBuffer buffer, final int offset, final Integer key) {
+            buffer.putInt(offset, key);
+        }
+    };
+
+    /**
+     * Big-endian 8-byte {@code long} keys.
+     */
+    KeyCodec<Long> LONG = new KeyCodec<>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public Long read(final ByteBuffer buffer, final int offset) {
+            return buffer.getLong(offset);
+        }
+
+        @Override
+        public void write(final ByteBuffer buffer, final int offset, final Long key) {
+            buffer.putLong(offset, key);
+        }
+    };
+
+    /**
+     * Returns size of single record in bytes.
+     *
+     * @return record width
+     */
+    int width();
+
+    /**
+     * Decodes key stored at given offset.
+     *
+     * @param buffer buffer to read from
+     * @param offset offset of record
+     * @return decoded key
+     */
+    T read(ByteBuffer buffer, int offset);
+
+    /**
+     * Encodes key at given offset.
+     *
+     * @param buffer buffer to write to
+     * @param offset offset of record
+     * @param key key to write
+     */
+    void write(ByteBuffer buffer, int offset, T key);
+}
@@ -0,0 +1,178 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import java.util.*;
+
+/**
+ * Immutable {@link NavigableSet} of {@code long} values backed by sorted {@code long[]}.
+ * Besides {@link NavigableSet} methods it provides primitive lookups which never box.
+ */
+public class LongArraySet extends IndexedArraySet<Long> {
+    private final long[] data;
+
+    public LongArraySet() {
+        this(new long[0]);
+    }
+
+    public LongArraySet(final Collection<? extends Long> st) {
+        this(unique(st.stream().mapToLong(Long::longValue).toArray()));
+    }
+
+    private LongArraySet(final long[] sorted) {
+        this(sorted, 0, sorted.length, false);
+    }
+
+    private LongArraySet(final long[] data, final int from, final int to, final boolean descending) {
+        super(from, to, descending);
+        this.data = data;
+    }
+
+    /**
+     * Makes set of given values. Values need not to be sorted or distinct.
+     *
+     * @param values values of set
+     * @return set of given values
+     */
+    public static LongArraySet of(final long... values) {
+        return new LongArraySet(unique(values.clone()));
+    }
+
+    private static long[] unique(final long[] values) {
+        Arrays.sort(values);
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[size - 1]) {
+                values[size++] = values[i];
+            }
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    Long element(final int pos) {
+        return data[pos];
+    }
+
+    @Override
+    int search(final Long elem) {
+        return Arrays.binarySearch(data, from, to, elem);
+    }
+
+    @Override
+    LongArraySet view(final int from, final int to, final boolean descending) {
+        return new LongArraySet(data, from, to, descending);
+    }
+
+    @Override
+    Comparator<? super Long> ascendingComparator() {
+        return null;
+    }
+
+    private long getElem(final int pos, final long absent) {
+        return (inRange(pos) ? data[pos] : absent);
+    }
+
+    /**
+     * Returns the greatest value strictly less than given one, or {@code absent} if there is no such value.
+     *
+     * @param elem value to look for
+     * @param absent value to return if there is no such value
+     * @return found value or {@code absent}
+     */
+    public long lowerLong(final long elem, final long absent) {
+        return getElem(bound(Arrays.binarySearch(data, from, to, elem), false, false), absent);
+    }
+
+    /**
+     * Returns the greatest value less than or equal to given one, or {@code absent} if there is no such value.
+     *
+     * @param elem value to look for
+     * @param absent value to return if there is no such value
+     * @return found value or {@code absent}
+     */
+    public long floorLong(final long elem, final long absent) {
+        return getElem(bound(Arrays.binarySearch(data, from, to, elem), true, false), absent);
+    }
+
+    /**
+     * Returns the least value greater than or equal to given one, or {@code absent} if there is no such value.
+     *
+     * @param elem value to look for
+     * @param absent value to return if there is no such value
+     * @return found value or {@code absent}
+     */
+    public long ceilingLong(final long elem, final long absent) {
+        return getElem(bound(Arrays.binarySearch(data, from, to, elem), true, true), absent);
+    }
+
+    /**
+     * Returns the least value strictly greater than given one, or {@code absent} if there is no such value.
+     *
+     * @param elem value to look for
+     * @param absent value to return if there is no such value
+     * @return found value or {@code absent}
+     */
+    public long higherLong(final long elem, final long absent) {
+        return getElem(bound(Arrays.binarySearch(data, from, to, elem), false, true), absent);
+    }
+
+    /**
+     * Checks whether set contains given value.
+     *
+     * @param elem value to look for
+     * @return {@code true} if set contains {@code elem}
+     */
+    public boolean containsLong(final long elem) {
+        return Arrays.binarySearch(data, from, to, elem) >= 0;
+    }
+
+    public long firstLong() {
+        return data[firstPos()];
+    }
+
+    public long lastLong() {
+        return data[lastPos()];
+    }
+
+    /**
+     * Returns iterator over values of set without boxing.
+     *
+     * @return primitive iterator in order of set
+     */
+    public PrimitiveIterator.OfLong longIterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int pos = descending ? to - 1 : from;
+
+            @Override
+            public boolean hasNext() {
+                return inRange(pos);
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements");
+                }
+                final long elem = data[pos];
+                pos += descending ? -1 : 1;
+                return elem;
+            }
+        };
+    }
+
+    /**
+     * Returns values of set as array in order of set.
+     *
+     * @return new array of values
+     */
+    public long[] toLongArray() {
+        final long[] res = Arrays.copyOfRange(data, from, to);
+        if (descending) {
+            for (int i = 0, j = res.length - 1; i < j; i++, j--) {
+                final long tmp = res[i];
+                res[i] = res[j];
+                res[j] = tmp;
+            }
+        }
+        return res;
+    }
+}
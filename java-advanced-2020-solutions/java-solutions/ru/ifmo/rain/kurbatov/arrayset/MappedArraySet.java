@@ -0,0 +1,158 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Immutable {@link NavigableSet} over sorted file of fixed-width records mapped into memory.
+ * Keys live off heap and are decoded by {@link KeyCodec} on access, so opening takes no time regardless of size.
+ * Views are windows of the same mapping.
+ *
+ * @param <T> type of elements
+ */
+public class MappedArraySet<T> extends IndexedArraySet<T> {
+    private final ByteBuffer[] chunks;
+    private final int chunkRecords;
+    private final KeyCodec<T> codec;
+    private final Comparator<? super T> comparator;
+
+    private MappedArraySet(final ByteBuffer[] chunks, final int chunkRecords, final KeyCodec<T> codec,
+                           final Comparator<? super T> comparator,
+                           final int from, final int to, final boolean descending) {
+        super(from, to, descending);
+        this.chunks = chunks;
+        this.chunkRecords = chunkRecords;
+        this.codec = codec;
+        this.comparator = comparator;
+    }
+
+    private static int chunkRecords(final KeyCodec<?> codec) {
+        return Integer.MAX_VALUE / codec.width();
+    }
+
+    /**
+     * Maps file of records sorted by given comparator. File contents are not checked.
+     *
+     * @param file file to map
+     * @param codec codec of records
+     * @param cmp comparator records are sorted by, {@code null} for natural ordering
+     * @param <T> type of elements
+     * @return set of records of file
+     * @throws IOException if file cannot be mapped
+     */
+    public static <T> MappedArraySet<T> open(final Path file, final KeyCodec<T> codec, final Comparator<? super T> cmp)
+            throws IOException {
+        return open(file, codec, cmp, chunkRecords(codec));
+    }
+
+    /**
+     * Maps file split into mappings of given number of records.
+     */
+    static <T> MappedArraySet<T> open(final Path file, final KeyCodec<T> codec, final Comparator<? super T> cmp,
+                                      final int chunkRecords) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long width = codec.width();
+            if (channel.size() % width != 0) {
+                throw new IOException("File size is not multiple of record width " + width);
+            }
+            final long records = channel.size() / width;
+            if (records > Integer.MAX_VALUE) {
+                throw new IOException("Too many records: " + records);
+            }
+            final ByteBuffer[] chunks = new ByteBuffer[(int) ((records + chunkRecords - 1) / chunkRecords)];
+            for (int i = 0; i < chunks.length; i++) {
+                final long start = (long) i * chunkRecords;
+                final long size = Math.min(chunkRecords, records - start) * width;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start * width, size);
+            }
+            return new MappedArraySet<>(chunks, chunkRecords, codec, cmp, 0, (int) records, false);
+        }
+    }
+
+    /**
+     * Maps file of records sorted in natural ordering. File contents are not checked.
+     *
+     * @param file file to map
+     * @param codec codec of records
+     * @param <T> type of elements
+     * @return set of records of file
+     * @throws IOException if file cannot be mapped
+     */
+    public static <T> MappedArraySet<T> open(final Path file, final KeyCodec<T> codec) throws IOException {
+        return open(file, codec, null);
+    }
+
+    /**
+     * Writes distinct given elements in sorted order as file suitable for {@link #open(Path, KeyCodec, Comparator)}.
+     *
+     * @param file file to write
+     * @param elements elements to write
+     * @param codec codec of records
+     * @param cmp comparator to sort elements by, {@code null} for natural ordering
+     * @param <T> type of elements
+     * @throws IOException if file cannot be written
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void write(final Path file, final Collection<? extends T> elements, final KeyCodec<T> codec,
+                                 final Comparator<? super T> cmp) throws IOException {
+        final Object[] sorted = SortedArrays.sortedUnique(elements, cmp);
+        final int width = codec.width();
+        final ByteBuffer buffer = ByteBuffer.allocate(Math.max(1, (1 << 16) / width) * width);
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (final Object elem : sorted) {
+                if (!buffer.hasRemaining()) {
+                    flush(channel, buffer);
+                }
+                codec.write(buffer, buffer.position(), (T) elem);
+                buffer.position(buffer.position() + width);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    T element(final int pos) {
+        return codec.read(chunks[pos / chunkRecords], pos % chunkRecords * codec.width());
+    }
+
+    @Override
+    int search(final T elem) {
+        int l = from;
+        int r = to - 1;
+        while (l <= r) {
+            final int m = (l + r) >>> 1;
+            final int c = SortedArrays.compare(comparator, element(m), elem);
+            if (c < 0) {
+                l = m + 1;
+            } else if (c > 0) {
+                r = m - 1;
+            } else {
+                return m;
+            }
+        }
+        return -(l + 1);
+    }
+
+    @Override
+    MappedArraySet<T> view(final int from, final int to, final boolean descending) {
+        return new MappedArraySet<>(chunks, chunkRecords, codec, comparator, from, to, descending);
+    }
+
+    @Override
+    Comparator<? super T> ascendingComparator() {
+        return comparator;
+    }
+}
@@ -0,0 +1,134 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedArraySetTests {
+    private static final int CHUNK_RECORDS = 7;
+
+    @TempDir
+    Path dir;
+
+    private final Random random = new Random(7_730_164_592L);
+
+    private static <T> void checkNavigation(final NavigableSet<T> expected, final NavigableSet<T> actual, final List<T> probes) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+        if (!expected.isEmpty()) {
+            assertEquals(expected.first(), actual.first());
+            assertEquals(expected.last(), actual.last());
+        }
+        for (final T probe : probes) {
+            assertEquals(expected.contains(probe), actual.contains(probe), "contains " + probe);
+            assertEquals(expected.lower(probe), actual.lower(probe), "lower " + probe);
+            assertEquals(expected.floor(probe), actual.floor(probe), "floor " + probe);
+            assertEquals(expected.ceiling(probe), actual.ceiling(probe), "ceiling " + probe);
+            assertEquals(expected.higher(probe), actual.higher(probe), "higher " + probe);
+        }
+    }
+
+    private List<Integer> ints(final int size) {
+        final List<Integer> res = random.ints(size, -1_000, 1_000).boxed().collect(Collectors.toList());
+        res.addAll(List.of(Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1));
+        return res;
+    }
+
+    @Test
+    public void test1_intsMatchTreeSetAcrossChunks() throws IOException {
+        final Path file = dir.resolve("ints");
+        final List<Integer> values = ints(500);
+        MappedArraySet.write(file, values, KeyCodec.INT, null);
+        final TreeSet<Integer> expected = new TreeSet<>(values);
+        assertEquals((long) expected.size() * Integer.BYTES, Files.size(file));
+
+        final ByteBuffer bigEndian = ByteBuffer.allocate(expected.size() * Integer.BYTES);
+        expected.forEach(bigEndian::putInt);
+        assertArrayEquals(bigEndian.array(), Files.readAllBytes(file));
+
+        final List<Integer> probes = ints(200);
+        final MappedArraySet<Integer> chunked = MappedArraySet.open(file, KeyCodec.INT, null, CHUNK_RECORDS);
+        checkNavigation(expected, chunked, probes);
+        checkNavigation(expected, MappedArraySet.open(file, KeyCodec.INT), probes);
+
+        final List<Integer> sorted = new ArrayList<>(expected);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), chunked.select(i));
+            assertEquals(i, chunked.indexOf(sorted.get(i)));
+            assertEquals(i, chunked.rank(sorted.get(i)));
+        }
+    }
+
+    @Test
+    public void test2_longsWithComparatorAcrossChunks() throws IOException {
+        final Path file = dir.resolve("longs");
+        final List<Long> values = random.longs(300).boxed().collect(Collectors.toList());
+        values.addAll(List.of(Long.MIN_VALUE, Long.MAX_VALUE, 0L));
+        final Comparator<Long> cmp = Comparator.reverseOrder();
+        MappedArraySet.write(file, values, KeyCodec.LONG, cmp);
+
+        final TreeSet<Long> expected = new TreeSet<>(cmp);
+        expected.addAll(values);
+        final List<Long> probes = new ArrayList<>(values.subList(0, 50));
+        probes.addAll(random.longs(50).boxed().collect(Collectors.toList()));
+        checkNavigation(expected, MappedArraySet.open(file, KeyCodec.LONG, cmp, CHUNK_RECORDS), probes);
+    }
+
+    @Test
+    public void test3_descendingViews() throws IOException {
+        final Path file = dir.resolve("views");
+        final List<Integer> values = ints(400);
+        MappedArraySet.write(file, values, KeyCodec.INT, null);
+        final TreeSet<Integer> expected = new TreeSet<>(values);
+        final MappedArraySet<Integer> actual = MappedArraySet.open(file, KeyCodec.INT, null, CHUNK_RECORDS);
+        final List<Integer> probes = ints(100);
+
+        checkNavigation(expected.descendingSet(), actual.descendingSet(), probes);
+        for (int i = 0; i < 30; i++) {
+            final int a = random.nextInt(2_000) - 1_000;
+            final int b = random.nextInt(2_000) - 1_000;
+            final int from = Math.min(a, b);
+            final int to = Math.max(a, b);
+            final boolean fromInclusive = random.nextBoolean();
+            final boolean toInclusive = random.nextBoolean();
+            checkNavigation(expected.subSet(from, fromInclusive, to, toInclusive).descendingSet(),
+                    actual.subSet(from, fromInclusive, to, toInclusive).descendingSet(), probes);
+            checkNavigation(expected.descendingSet().headSet(from, fromInclusive),
+                    actual.descendingSet().headSet(from, fromInclusive), probes);
+        }
+    }
+
+    @Test
+    public void test4_emptyFile() throws IOException {
+        final Path file = dir.resolve("empty");
+        MappedArraySet.write(file, List.of(), KeyCodec.LONG, null);
+        assertEquals(0, Files.size(file));
+        for (final MappedArraySet<Long> set : List.of(MappedArraySet.open(file, KeyCodec.LONG), MappedArraySet.open(file, KeyCodec.LONG, null, CHUNK_RECORDS))) {
+            assertTrue(set.isEmpty());
+            assertFalse(set.contains(0L));
+            assertNull(set.ceiling(0L));
+            assertNull(set.descendingSet().floor(0L));
+            assertFalse(set.iterator().hasNext());
+            assertThrows(NoSuchElementException.class, set::first);
+        }
+    }
+
+    @Test
+    public void test5_rejectsPartialRecords() throws IOException {
+        final Path file = dir.resolve("partial");
+        Files.write(file, new byte[Integer.BYTES * 3 + 1]);
+        assertThrows(IOException.class, () -> MappedArraySet.open(file, KeyCodec.INT));
+
+        Files.write(file, new byte[Integer.BYTES * 3]);
+        assertEquals(Set.of(0), new HashSet<>(MappedArraySet.open(file, KeyCodec.INT)));
+        assertThrows(IOException.class, () -> MappedArraySet.open(file, KeyCodec.LONG));
+    }
+}
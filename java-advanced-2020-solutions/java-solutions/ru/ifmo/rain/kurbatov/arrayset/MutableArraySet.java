@@ -0,0 +1,589 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import java.util.*;
+
+/**
+ * Mutable {@link NavigableSet} for read-heavy workloads.
+ * Elements are kept in sorted array, while changes are buffered in small sorted delta
+ * and merged into the array in bulk once the delta grows, so each change costs amortized
+ * {@code O(log n)} and lookups search the delta first and then the array.
+ * Iterators are weakly consistent. Views are backed by the set.
+ *
+ * @param <T> type of elements
+ */
+public class MutableArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
+    private static final int MIN_DELTA = 64;
+    private static final int DELTA_RATIO = 8;
+
+    private final Storage<T> storage;
+    private final boolean hasLo;
+    private final T lo;
+    private final boolean loInclusive;
+    private final boolean hasHi;
+    private final T hi;
+    private final boolean hiInclusive;
+    private final boolean descending;
+    private int cachedSize;
+    private int cachedModCount = -1;
+
+    public MutableArraySet() {
+        this((Comparator<? super T>) null);
+    }
+
+    public MutableArraySet(final Comparator<? super T> cmp) {
+        this(Collections.emptyList(), cmp);
+    }
+
+    public MutableArraySet(final Collection<? extends T> st) {
+        this(st, null);
+    }
+
+    public MutableArraySet(final Collection<? extends T> st, final Comparator<? super T> cmp) {
+        this(new Storage<>(SortedArrays.sortedUnique(st, cmp), cmp), false, null, false, false, null, false, false);
+    }
+
+    private MutableArraySet(final Storage<T> storage,
+                            final boolean hasLo, final T lo, final boolean loInclusive,
+                            final boolean hasHi, final T hi, final boolean hiInclusive,
+                            final boolean descending) {
+        this.storage = storage;
+        this.hasLo = hasLo;
+        this.lo = lo;
+        this.loInclusive = loInclusive;
+        this.hasHi = hasHi;
+        this.hi = hi;
+        this.hiInclusive = hiInclusive;
+        this.descending = descending;
+    }
+
+    /**
+     * Elements shared by set and its views: sorted array, elements added to it and positions of removed elements of it.
+     * Invariant: {@code inserts} are absent among live elements of {@code base}.
+     * Removed element of {@code base} stays removed until merge, even if it is added again, so runs of removed
+     * positions only grow and are skipped by path-compressed links to the nearest live position in amortized
+     * nearly constant time.
+     */
+    private static class Storage<T> {
+        private final Comparator<? super T> comparator;
+        private Object[] base;
+        private final TreeSet<T> inserts;
+        private final BitSet deleted = new BitSet();
+        private int deletedCount;
+        // nextLive[i] and prevLive[i + 1] lead to live position at or after / at or before i, made on first removal
+        private int[] nextLive;
+        private int[] prevLive;
+        private int modCount;
+
+        Storage(final Object[] base, final Comparator<? super T> comparator) {
+            this.comparator = comparator;
+            this.base = base;
+            inserts = new TreeSet<>(comparator);
+        }
+
+        int compare(final T a, final T b) {
+            return SortedArrays.compare(comparator, a, b);
+        }
+
+        @SuppressWarnings("unchecked")
+        T baseAt(final int pos) {
+            return (T) base[pos];
+        }
+
+        @SuppressWarnings("unchecked")
+        int baseSearch(final T elem) {
+            return Arrays.binarySearch((T[]) base, Objects.requireNonNull(elem), comparator);
+        }
+
+        /**
+         * Returns position in {@code base} of the first element after {@code elem} in given direction,
+         * possibly -1 or {@code base.length}.
+         */
+        int baseBound(final T elem, final boolean inclusive, final boolean up) {
+            final int pos = baseSearch(elem);
+            if (pos >= 0) {
+                if (inclusive) {
+                    return pos;
+                } else {
+                    return (up ? pos + 1 : pos - 1);
+                }
+            }
+            return (up ? ~pos : ~pos - 1);
+        }
+
+        int baseEdge(final boolean up) {
+            return up ? 0 : base.length - 1;
+        }
+
+        boolean inBase(final int pos) {
+            return 0 <= pos && pos < base.length;
+        }
+
+        boolean isLive(final int pos) {
+            return pos >= 0 && !deleted.get(pos);
+        }
+
+        int skipDeleted(final int pos, final boolean up) {
+            if (deletedCount == 0 || !inBase(pos)) {
+                return pos;
+            }
+            return up ? find(nextLive, pos) : find(prevLive, pos + 1) - 1;
+        }
+
+        private static int find(final int[] links, final int pos) {
+            int root = pos;
+            while (links[root] != root) {
+                root = links[root];
+            }
+            for (int i = pos; i != root; ) {
+                final int next = links[i];
+                links[i] = root;
+                i = next;
+            }
+            return root;
+        }
+
+        private void delete(final int pos) {
+            if (nextLive == null) {
+                nextLive = new int[base.length + 1];
+                prevLive = new int[base.length + 1];
+                Arrays.setAll(nextLive, i -> i);
+                Arrays.setAll(prevLive, i -> i);
+            }
+            deleted.set(pos);
+            deletedCount++;
+            nextLive[pos] = pos + 1;
+            prevLive[pos + 1] = pos;
+        }
+
+        /**
+         * Returns number of removed elements of {@code base} at positions from {@code from} to {@code to} inclusive.
+         */
+        int deletedBetween(final int from, final int to) {
+            int res = 0;
+            for (int i = deleted.nextSetBit(Math.max(0, from)); i >= 0 && i <= to; i = deleted.nextSetBit(i + 1)) {
+                res++;
+            }
+            return res;
+        }
+
+        T deltaNext(final T elem, final boolean inclusive, final boolean up) {
+            if (inserts.isEmpty()) {
+                return null;
+            }
+            if (elem == null) {
+                return up ? inserts.first() : inserts.last();
+            }
+            if (up) {
+                return inclusive ? inserts.ceiling(elem) : inserts.higher(elem);
+            } else {
+                return inclusive ? inserts.floor(elem) : inserts.lower(elem);
+            }
+        }
+
+        T pick(final T a, final T b, final boolean up) {
+            if (a == null || b == null) {
+                return a == null ? b : a;
+            }
+            return (compare(a, b) < 0) == up ? a : b;
+        }
+
+        /**
+         * Returns the first element after {@code elem} in given direction, from the edge if {@code elem} is {@code null}.
+         */
+        T next(final T elem, final boolean inclusive, final boolean up) {
+            final int pos = skipDeleted(elem == null ? baseEdge(up) : baseBound(elem, inclusive, up), up);
+            return pick(inBase(pos) ? baseAt(pos) : null, deltaNext(elem, inclusive, up), up);
+        }
+
+        boolean contains(final T elem) {
+            return inserts.contains(elem) || isLive(baseSearch(elem));
+        }
+
+        boolean add(final T elem) {
+            if (isLive(baseSearch(elem)) || !inserts.add(elem)) {
+                return false;
+            }
+            modCount++;
+            mergeIfNeeded();
+            return true;
+        }
+
+        boolean remove(final T elem) {
+            if (inserts.remove(elem)) {
+                modCount++;
+                return true;
+            }
+            final int pos = baseSearch(elem);
+            if (!isLive(pos)) {
+                return false;
+            }
+            delete(pos);
+            modCount++;
+            mergeIfNeeded();
+            return true;
+        }
+
+        int size() {
+            return base.length - deletedCount + inserts.size();
+        }
+
+        void clear() {
+            base = new Object[0];
+            inserts.clear();
+            resetDeleted();
+            modCount++;
+        }
+
+        private void resetDeleted() {
+            deleted.clear();
+            deletedCount = 0;
+            nextLive = null;
+            prevLive = null;
+        }
+
+        private void mergeIfNeeded() {
+            if (inserts.size() + deletedCount > Math.max(MIN_DELTA, base.length / DELTA_RATIO)) {
+                merge();
+            }
+        }
+
+        private void merge() {
+            final Object[] res = new Object[size()];
+            final Iterator<T> it = inserts.iterator();
+            T insert = it.hasNext() ? it.next() : null;
+            int size = 0;
+            for (int i = 0; i < base.length; i++) {
+                if (deleted.get(i)) {
+                    continue;
+                }
+                final T elem = baseAt(i);
+                while (insert != null && compare(insert, elem) < 0) {
+                    res[size++] = insert;
+                    insert = it.hasNext() ? it.next() : null;
+                }
+                res[size++] = elem;
+            }
+            while (insert != null) {
+                res[size++] = insert;
+                insert = it.hasNext() ? it.next() : null;
+            }
+            base = res;
+            inserts.clear();
+            resetDeleted();
+        }
+    }
+
+    private boolean tooLow(final T elem) {
+        if (hasLo) {
+            final int c = storage.compare(elem, lo);
+            return c < 0 || c == 0 && !loInclusive;
+        }
+        return false;
+    }
+
+    private boolean tooHigh(final T elem) {
+        if (hasHi) {
+            final int c = storage.compare(elem, hi);
+            return c > 0 || c == 0 && !hiInclusive;
+        }
+        return false;
+    }
+
+    private boolean inRange(final T elem) {
+        return !tooLow(elem) && !tooHigh(elem);
+    }
+
+    private boolean inClosedRange(final T elem) {
+        return (!hasLo || storage.compare(elem, lo) >= 0) && (!hasHi || storage.compare(elem, hi) <= 0);
+    }
+
+    private boolean inRange(final T elem, final boolean inclusive) {
+        return inclusive ? inRange(elem) : inClosedRange(elem);
+    }
+
+    private T checkHigh(final T elem) {
+        return elem == null || tooHigh(elem) ? null : elem;
+    }
+
+    private T checkLow(final T elem) {
+        return elem == null || tooLow(elem) ? null : elem;
+    }
+
+    private T absLowest() {
+        return checkHigh(hasLo ? storage.next(lo, loInclusive, true) : storage.next(null, true, true));
+    }
+
+    private T absHighest() {
+        return checkLow(hasHi ? storage.next(hi, hiInclusive, false) : storage.next(null, true, false));
+    }
+
+    private T absNext(final T elem, final boolean inclusive, final boolean up) {
+        Objects.requireNonNull(elem);
+        if (up) {
+            return tooLow(elem) ? absLowest() : checkHigh(storage.next(elem, inclusive, true));
+        } else {
+            return tooHigh(elem) ? absHighest() : checkLow(storage.next(elem, inclusive, false));
+        }
+    }
+
+    @Override
+    public T lower(final T elem) {
+        return absNext(elem, false, descending);
+    }
+
+    @Override
+    public T floor(final T elem) {
+        return absNext(elem, true, descending);
+    }
+
+    @Override
+    public T ceiling(final T elem) {
+        return absNext(elem, true, !descending);
+    }
+
+    @Override
+    public T higher(final T elem) {
+        return absNext(elem, false, !descending);
+    }
+
+    private T firstOrNull() {
+        return descending ? absHighest() : absLowest();
+    }
+
+    private T lastOrNull() {
+        return descending ? absLowest() : absHighest();
+    }
+
+    private T checkExists(final T elem) {
+        if (elem == null) {
+            throw new NoSuchElementException("Collection is empty");
+        }
+        return elem;
+    }
+
+    @Override
+    public T first() {
+        return checkExists(firstOrNull());
+    }
+
+    @Override
+    public T last() {
+        return checkExists(lastOrNull());
+    }
+
+    private T poll(final T elem) {
+        if (elem != null) {
+            storage.remove(elem);
+        }
+        return elem;
+    }
+
+    @Override
+    public T pollFirst() {
+        return poll(firstOrNull());
+    }
+
+    @Override
+    public T pollLast() {
+        return poll(lastOrNull());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean contains(final Object elem) {
+        final T e = (T) Objects.requireNonNull(elem);
+        return inRange(e) && storage.contains(e);
+    }
+
+    @Override
+    public boolean add(final T elem) {
+        if (!inRange(Objects.requireNonNull(elem))) {
+            throw new IllegalArgumentException("Element out of range");
+        }
+        return storage.add(elem);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean remove(final Object elem) {
+        final T e = (T) Objects.requireNonNull(elem);
+        return inRange(e) && storage.remove(e);
+    }
+
+    @Override
+    public void clear() {
+        if (hasLo || hasHi) {
+            super.clear();
+        } else {
+            storage.clear();
+        }
+    }
+
+    private NavigableSet<T> restrict(final NavigableSet<T> st) {
+        if (hasLo && hasHi) {
+            return st.subSet(lo, loInclusive, hi, hiInclusive);
+        }
+        if (hasLo) {
+            return st.tailSet(lo, loInclusive);
+        }
+        return hasHi ? st.headSet(hi, hiInclusive) : st;
+    }
+
+    /**
+     * Returns number of elements of set or view.
+     * Size of bounded view is counted in time linear in number of pending changes within its range
+     * and is cached until the set is modified.
+     *
+     * @return number of elements
+     */
+    @Override
+    public int size() {
+        if (!hasLo && !hasHi) {
+            return storage.size();
+        }
+        if (cachedModCount != storage.modCount) {
+            final int from = hasLo ? storage.baseBound(lo, loInclusive, true) : 0;
+            final int to = hasHi ? storage.baseBound(hi, hiInclusive, false) : storage.base.length - 1;
+            cachedSize = Math.max(0, to - from + 1) - storage.deletedBetween(from, to) + restrict(storage.inserts).size();
+            cachedModCount = storage.modCount;
+        }
+        return cachedSize;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr(!descending);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new Itr(descending);
+    }
+
+    private class Itr implements Iterator<T> {
+        private final boolean up;
+        private Object[] seen;
+        private int pos;
+        private T cursor;
+        private boolean inclusive;
+        private T next;
+        private T last;
+
+        Itr(final boolean up) {
+            this.up = up;
+            if (up ? hasLo : hasHi) {
+                cursor = up ? lo : hi;
+                inclusive = up ? loInclusive : hiInclusive;
+            }
+            advance();
+        }
+
+        private void advance() {
+            if (seen != storage.base) {
+                seen = storage.base;
+                pos = cursor == null ? storage.baseEdge(up) : storage.baseBound(cursor, inclusive, up);
+            }
+            pos = storage.skipDeleted(pos, up);
+            final T fromBase = storage.inBase(pos) ? storage.baseAt(pos) : null;
+            next = storage.pick(fromBase, storage.deltaNext(cursor, inclusive, up), up);
+            if (next != null && next == fromBase) {
+                pos += up ? 1 : -1;
+            }
+            if (next != null && (up ? tooHigh(next) : tooLow(next))) {
+                next = null;
+            }
+            if (next != null) {
+                cursor = next;
+                inclusive = false;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException("No more elements");
+            }
+            last = next;
+            advance();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException("No element to remove");
+            }
+            storage.remove(last);
+            last = null;
+        }
+    }
+
+    private MutableArraySet<T> ascView(final boolean hasLo, final T lo, final boolean loInclusive,
+                                       final boolean hasHi, final T hi, final boolean hiInclusive) {
+        if (hasLo && !inRange(Objects.requireNonNull(lo), loInclusive)) {
+            throw new IllegalArgumentException("fromElem out of range");
+        }
+        if (hasHi && !inRange(Objects.requireNonNull(hi), hiInclusive)) {
+            throw new IllegalArgumentException("toElem out of range");
+        }
+        return new MutableArraySet<>(storage,
+                hasLo || this.hasLo, hasLo ? lo : this.lo, hasLo ? loInclusive : this.loInclusive,
+                hasHi || this.hasHi, hasHi ? hi : this.hi, hasHi ? hiInclusive : this.hiInclusive,
+                descending);
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return new MutableArraySet<>(storage, hasLo, lo, loInclusive, hasHi, hi, hiInclusive, !descending);
+    }
+
+    @Override
+    public NavigableSet<T> subSet(final T fromElement, final boolean fromInclusive, final T toElement, final boolean toInclusive) {
+        final int c = storage.compare(fromElement, toElement);
+        if (descending ? c < 0 : c > 0) {
+            throw new IllegalArgumentException("Incorrect args order");
+        }
+        return descending
+                ? ascView(true, toElement, toInclusive, true, fromElement, fromInclusive)
+                : ascView(true, fromElement, fromInclusive, true, toElement, toInclusive);
+    }
+
+    @Override
+    public NavigableSet<T> headSet(final T toElement, final boolean inclusive) {
+        return descending
+                ? ascView(true, toElement, inclusive, false, null, false)
+                : ascView(false, null, false, true, toElement, inclusive);
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(final T fromElement, final boolean inclusive) {
+        return descending
+                ? ascView(false, null, false, true, fromElement, inclusive)
+                : ascView(true, fromElement, inclusive, false, null, false);
+    }
+
+    @Override
+    public SortedSet<T> subSet(final T fromElement, final T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(final T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(final T fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return descending ? Collections.reverseOrder(storage.comparator) : storage.comparator;
+    }
+}
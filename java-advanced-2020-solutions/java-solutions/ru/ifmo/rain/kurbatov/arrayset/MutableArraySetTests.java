@@ -0,0 +1,158 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MutableArraySetTests {
+    private static final int RANGE = 2_000;
+
+    private final Random random = new Random(3_051_742_918L);
+
+    private static void checkNavigation(final NavigableSet<Integer> expected, final NavigableSet<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+        for (int probe = -2; probe <= RANGE + 1; probe += 7) {
+            assertEquals(expected.contains(probe), actual.contains(probe), "contains " + probe);
+            assertEquals(expected.lower(probe), actual.lower(probe), "lower " + probe);
+            assertEquals(expected.floor(probe), actual.floor(probe), "floor " + probe);
+            assertEquals(expected.ceiling(probe), actual.ceiling(probe), "ceiling " + probe);
+            assertEquals(expected.higher(probe), actual.higher(probe), "higher " + probe);
+        }
+    }
+
+    @Test
+    public void test1_mutationsMatchTreeSet() {
+        final TreeSet<Integer> expected = new TreeSet<>();
+        final MutableArraySet<Integer> actual = new MutableArraySet<>();
+        for (int i = 0; i < 20_000; i++) {
+            final int value = random.nextInt(RANGE);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.add(value), actual.add(value), "add " + value);
+                    break;
+                case 2:
+                    assertEquals(expected.remove(value), actual.remove(value), "remove " + value);
+                    break;
+                default:
+                    assertEquals(expected.contains(value), actual.contains(value), "contains " + value);
+            }
+            if (i % 1_000 == 0) {
+                checkNavigation(expected, actual);
+            }
+        }
+        checkNavigation(expected, actual);
+        checkNavigation(expected.descendingSet(), actual.descendingSet());
+    }
+
+    @Test
+    public void test2_pollsAndIteratorRemove() {
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < RANGE; i++) {
+            values.add(random.nextInt(RANGE));
+        }
+        final TreeSet<Integer> expected = new TreeSet<>(values);
+        final MutableArraySet<Integer> actual = new MutableArraySet<>(values);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(expected.pollFirst(), actual.pollFirst());
+            assertEquals(expected.pollLast(), actual.pollLast());
+            actual.add(random.nextInt(RANGE));
+            expected.add(random.nextInt(RANGE));
+            expected.retainAll(actual);
+            actual.retainAll(expected);
+        }
+        checkNavigation(expected, actual);
+
+        final Iterator<Integer> expectedIt = expected.iterator();
+        final Iterator<Integer> actualIt = actual.iterator();
+        while (expectedIt.hasNext()) {
+            assertEquals(expectedIt.next(), actualIt.next());
+            if (random.nextBoolean()) {
+                expectedIt.remove();
+                actualIt.remove();
+            }
+        }
+        assertFalse(actualIt.hasNext());
+        checkNavigation(expected, actual);
+    }
+
+    @Test
+    public void test3_viewsAreBackedBySet() {
+        final TreeSet<Integer> expected = new TreeSet<>(Comparator.reverseOrder());
+        final MutableArraySet<Integer> actual = new MutableArraySet<>(Comparator.reverseOrder());
+        final NavigableSet<Integer> expectedView = expected.subSet(RANGE * 3 / 4, true, RANGE / 4, false);
+        final NavigableSet<Integer> actualView = actual.subSet(RANGE * 3 / 4, true, RANGE / 4, false);
+        for (int i = 0; i < 5_000; i++) {
+            final int value = random.nextInt(RANGE);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), actual.add(value));
+            } else if (value <= RANGE * 3 / 4 && value > RANGE / 4) {
+                assertEquals(expectedView.remove(value), actualView.remove(value));
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> actualView.add(value));
+            }
+            assertEquals(expectedView.size(), actualView.size());
+        }
+        checkNavigation(expectedView, actualView);
+        checkNavigation(expectedView.descendingSet(), actualView.descendingSet());
+        checkNavigation(expected.headSet(RANGE / 2, true), actual.headSet(RANGE / 2, true));
+        checkNavigation(expected, actual);
+
+        actualView.clear();
+        expectedView.clear();
+        checkNavigation(expected, actual);
+    }
+
+    @Test
+    public void test4_drainIsNotQuadratic() {
+        final int size = 400_000;
+        final List<Integer> values = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            final MutableArraySet<Integer> set = new MutableArraySet<>(values);
+            for (int i = 0; i < size / 2; i++) {
+                assertEquals(i, set.pollFirst());
+                assertEquals(size - 1 - i, set.pollLast());
+            }
+            assertTrue(set.isEmpty());
+            assertNull(set.pollFirst());
+        });
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            final MutableArraySet<Integer> set = new MutableArraySet<>(values);
+            final NavigableSet<Integer> middle = set.subSet(size / 4, true, size * 3 / 4, false);
+            for (int i = size / 4; i < size * 3 / 4; i++) {
+                assertEquals(i, middle.first());
+                assertEquals(i + 1, set.higher(i));
+                assertTrue(set.remove(i));
+                assertEquals(i + 1, set.ceiling(size / 4));
+                assertEquals(size / 4 - 1, set.lower(i + 1));
+            }
+            assertTrue(middle.isEmpty());
+        });
+    }
+
+    @Test
+    public void test5_readdRemovedElements() {
+        final List<Integer> values = IntStream.range(0, RANGE).boxed().collect(Collectors.toList());
+        final TreeSet<Integer> expected = new TreeSet<>(values);
+        final MutableArraySet<Integer> actual = new MutableArraySet<>(values);
+        for (int i = 0; i < RANGE; i++) {
+            final int value = random.nextInt(RANGE / 10);
+            if (random.nextBoolean()) {
+                assertEquals(expected.remove(value), actual.remove(value), "remove " + value);
+            } else {
+                assertEquals(expected.add(value), actual.add(value), "add " + value);
+            }
+            assertEquals(expected.first(), actual.first());
+            assertEquals(expected.ceiling(value), actual.ceiling(value), "ceiling " + value);
+            assertEquals(expected.floor(value), actual.floor(value), "floor " + value);
+        }
+        checkNavigation(expected, actual);
+        checkNavigation(expected.descendingSet(), actual.descendingSet());
+    }
+}
@@ -0,0 +1,187 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimitiveArraySetTests {
+    private static final int RANGE = 2_000;
+    private static final int ABSENT = Integer.MIN_VALUE;
+
+    private final Random random = new Random(6_128_904_375L);
+
+    private static <T> void checkNavigation(final NavigableSet<T> expected, final NavigableSet<T> actual, final List<T> probes) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+        if (!expected.isEmpty()) {
+            assertEquals(expected.first(), actual.first());
+            assertEquals(expected.last(), actual.last());
+        }
+        for (final T probe : probes) {
+            assertEquals(expected.contains(probe), actual.contains(probe), "contains " + probe);
+            assertEquals(expected.lower(probe), actual.lower(probe), "lower " + probe);
+            assertEquals(expected.floor(probe), actual.floor(probe), "floor " + probe);
+            assertEquals(expected.ceiling(probe), actual.ceiling(probe), "ceiling " + probe);
+            assertEquals(expected.higher(probe), actual.higher(probe), "higher " + probe);
+        }
+    }
+
+    private static void checkInts(final NavigableSet<Integer> expected, final IntArraySet actual, final int[] probes) {
+        checkNavigation(expected, actual, Arrays.stream(probes).boxed().collect(Collectors.toList()));
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), actual.toIntArray());
+        final PrimitiveIterator.OfInt it = actual.intIterator();
+        for (final int value : expected) {
+            assertEquals(value, it.nextInt());
+        }
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::nextInt);
+        if (!expected.isEmpty()) {
+            assertEquals(expected.first(), actual.firstInt());
+            assertEquals(expected.last(), actual.lastInt());
+        }
+        for (final int probe : probes) {
+            assertEquals(expected.contains(probe), actual.containsInt(probe), "containsInt " + probe);
+            assertEquals(orAbsent(expected.lower(probe)), actual.lowerInt(probe, ABSENT), "lowerInt " + probe);
+            assertEquals(orAbsent(expected.floor(probe)), actual.floorInt(probe, ABSENT), "floorInt " + probe);
+            assertEquals(orAbsent(expected.ceiling(probe)), actual.ceilingInt(probe, ABSENT), "ceilingInt " + probe);
+            assertEquals(orAbsent(expected.higher(probe)), actual.higherInt(probe, ABSENT), "higherInt " + probe);
+        }
+    }
+
+    private static void checkLongs(final NavigableSet<Long> expected, final LongArraySet actual, final long[] probes) {
+        checkNavigation(expected, actual, Arrays.stream(probes).boxed().collect(Collectors.toList()));
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), actual.toLongArray());
+        final PrimitiveIterator.OfLong it = actual.longIterator();
+        for (final long value : expected) {
+            assertEquals(value, it.nextLong());
+        }
+        assertFalse(it.hasNext());
+        if (!expected.isEmpty()) {
+            assertEquals(expected.first(), actual.firstLong());
+            assertEquals(expected.last(), actual.lastLong());
+        }
+        for (final long probe : probes) {
+            assertEquals(expected.contains(probe), actual.containsLong(probe), "containsLong " + probe);
+            assertEquals(orAbsent(expected.lower(probe)), actual.lowerLong(probe, ABSENT), "lowerLong " + probe);
+            assertEquals(orAbsent(expected.floor(probe)), actual.floorLong(probe, ABSENT), "floorLong " + probe);
+            assertEquals(orAbsent(expected.ceiling(probe)), actual.ceilingLong(probe, ABSENT), "ceilingLong " + probe);
+            assertEquals(orAbsent(expected.higher(probe)), actual.higherLong(probe, ABSENT), "higherLong " + probe);
+        }
+    }
+
+    private static long orAbsent(final Number value) {
+        return value == null ? ABSENT : value.longValue();
+    }
+
+    private int[] ints(final int size) {
+        final int[] res = random.ints(size, -RANGE / 2, RANGE / 2).toArray();
+        res[0] = Integer.MAX_VALUE;
+        return res;
+    }
+
+    @Test
+    public void test1_intsMatchTreeSet() {
+        final int[] values = ints(RANGE);
+        final int[] probes = ints(RANGE / 4);
+        final TreeSet<Integer> expected = Arrays.stream(values).boxed().collect(Collectors.toCollection(TreeSet::new));
+        final IntArraySet actual = IntArraySet.of(values);
+        checkInts(expected, actual, probes);
+        checkInts(expected, new IntArraySet(Arrays.stream(values).boxed().collect(Collectors.toList())), probes);
+        checkInts(expected.descendingSet(), (IntArraySet) actual.descendingSet(), probes);
+
+        for (int i = 0; i < 50; i++) {
+            final int a = random.nextInt(RANGE) - RANGE / 2;
+            final int b = random.nextInt(RANGE) - RANGE / 2;
+            final boolean fromInclusive = random.nextBoolean();
+            final boolean toInclusive = random.nextBoolean();
+            checkInts(expected.subSet(Math.min(a, b), fromInclusive, Math.max(a, b), toInclusive),
+                    (IntArraySet) actual.subSet(Math.min(a, b), fromInclusive, Math.max(a, b), toInclusive), probes);
+            checkInts(expected.descendingSet().headSet(a, fromInclusive),
+                    (IntArraySet) actual.descendingSet().headSet(a, fromInclusive), probes);
+            checkInts(expected.descendingSet().tailSet(b, toInclusive).descendingSet(),
+                    (IntArraySet) actual.descendingSet().tailSet(b, toInclusive).descendingSet(), probes);
+        }
+    }
+
+    @Test
+    public void test2_longsMatchTreeSet() {
+        final long[] values = random.longs(RANGE, -RANGE, RANGE).toArray();
+        values[0] = Long.MIN_VALUE;
+        values[1] = Long.MAX_VALUE;
+        final long[] probes = random.longs(RANGE / 4, -RANGE - 1, RANGE + 1).toArray();
+        final TreeSet<Long> expected = Arrays.stream(values).boxed().collect(Collectors.toCollection(TreeSet::new));
+        final LongArraySet actual = LongArraySet.of(values);
+        checkLongs(expected, actual, probes);
+        checkLongs(expected.descendingSet(), (LongArraySet) actual.descendingSet(), probes);
+
+        for (int i = 0; i < 50; i++) {
+            final long a = random.nextInt(2 * RANGE) - RANGE;
+            final long b = random.nextInt(2 * RANGE) - RANGE;
+            checkLongs(expected.descendingSet().subSet(Math.max(a, b), true, Math.min(a, b), false),
+                    (LongArraySet) actual.descendingSet().subSet(Math.max(a, b), true, Math.min(a, b), false), probes);
+        }
+    }
+
+    @Test
+    public void test3_emptyAndImmutable() {
+        final IntArraySet ints = new IntArraySet();
+        assertTrue(ints.isEmpty());
+        assertEquals(ABSENT, ints.ceilingInt(0, ABSENT));
+        assertFalse(ints.containsInt(0));
+        assertThrows(NoSuchElementException.class, ints::firstInt);
+        assertThrows(NoSuchElementException.class, ints::first);
+        assertEquals(0, IntArraySet.of(1, 2, 3).subSet(2, false, 3, false).size());
+
+        final LongArraySet longs = LongArraySet.of(3, 1, 3, 2);
+        assertArrayEquals(new long[]{1, 2, 3}, longs.toLongArray());
+        assertThrows(UnsupportedOperationException.class, () -> longs.add(4L));
+        assertThrows(UnsupportedOperationException.class, longs::pollFirst);
+        assertThrows(NullPointerException.class, () -> longs.contains(null));
+
+        final int[] source = {2, 1};
+        final IntArraySet copy = IntArraySet.of(source);
+        source[0] = 5;
+        assertArrayEquals(new int[]{1, 2}, copy.toIntArray());
+    }
+
+    private static <T> void checkRanks(final NavigableSet<T> expected, final IndexedArraySet<T> actual, final List<T> probes) {
+        final List<T> sorted = new ArrayList<>(expected);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), actual.select(i));
+            assertEquals(i, actual.indexOf(sorted.get(i)));
+            assertEquals(i, actual.rank(sorted.get(i)));
+        }
+        for (final T probe : probes) {
+            final T lower = expected.lower(probe);
+            final int rank = lower == null ? 0 : Collections.binarySearch(sorted, lower, expected.comparator()) + 1;
+            assertEquals(rank, actual.rank(probe), "rank " + probe);
+            if (!expected.contains(probe)) {
+                assertEquals(-1, actual.indexOf(probe), "indexOf " + probe);
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> actual.select(sorted.size()));
+    }
+
+    @Test
+    public void test4_ranksMatchTreeSet() {
+        final int[] ints = ints(RANGE);
+        final List<Integer> intProbes = Arrays.stream(ints(RANGE / 10)).boxed().collect(Collectors.toList());
+        final TreeSet<Integer> expectedInts = Arrays.stream(ints).boxed().collect(Collectors.toCollection(TreeSet::new));
+        final IntArraySet actualInts = IntArraySet.of(ints);
+        checkRanks(expectedInts, actualInts, intProbes);
+        checkRanks(expectedInts.descendingSet(), (IntArraySet) actualInts.descendingSet(), intProbes);
+
+        final long[] longs = random.longs(RANGE, -RANGE, RANGE).toArray();
+        final List<Long> longProbes = random.longs(RANGE / 10, -RANGE - 1, RANGE + 1).boxed().collect(Collectors.toList());
+        final TreeSet<Long> expectedLongs = Arrays.stream(longs).boxed().collect(Collectors.toCollection(TreeSet::new));
+        final LongArraySet actualLongs = LongArraySet.of(longs);
+        for (final long probe : longProbes.subList(0, 20)) {
+            checkRanks(expectedLongs.tailSet(probe, false), (LongArraySet) actualLongs.tailSet(probe, false), longProbes);
+            checkRanks(expectedLongs.headSet(probe, true).descendingSet(),
+                    (LongArraySet) actualLongs.headSet(probe, true).descendingSet(), longProbes);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package ru.ifmo.rain.kurbatov.arrayset;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Helpers for sorted arrays of distinct elements backing sets.
+ */
+final class SortedArrays {
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+    private static final int GALLOP_RATIO = 8;
+
+    private SortedArrays() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> int compare(final Comparator<? super T> cmp, final Object a, final Object b) {
+        return cmp == null ? ((Comparable<? super T>) a).compareTo((T) b) : cmp.compare((T) a, (T) b);
+    }
+
+    static <T> boolean isSorted(final Object[] arr, final Comparator<? super T> cmp) {
+        for (int i = 1; i < arr.length; i++) {
+            if (compare(cmp, arr[i - 1], arr[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts given array and removes duplicates, keeping the first of equal elements.
+     * Array is modified and may be returned as result.
+     *
+     * @param arr elements
+     * @param cmp comparator, {@code null} for natural ordering
+     * @param presorted whether {@code arr} is known to be sorted
+     * @return sorted array of distinct elements
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Object[] sortedUnique(final Object[] arr, final Comparator<? super T> cmp, final boolean presorted) {
+        if (!presorted && !isSorted(arr, cmp)) {
+            Arrays.parallelSort((T[]) arr, (Comparator<? super T>) (cmp == null ? Comparator.naturalOrder() : cmp));
+        }
+        return arr.length < PARALLEL_THRESHOLD ? unique(arr, cmp) : parallelUnique(arr, cmp);
+    }
+
+    /**
+     * Returns sorted array of distinct elements of given collection.
+     *
+     * @param st elements
+     * @param cmp comparator, {@code null} for natural ordering
+     * @return new sorted array of distinct elements
+     */
+    static <T> Object[] sortedUnique(final Collection<? extends T> st, final Comparator<? super T> cmp) {
+        if (st instanceof SortedSet && Objects.equals(((SortedSet<?>) st).comparator(), cmp)) {
+            return st.toArray();
+        }
+        return sortedUnique(st.toArray(), cmp, false);
+    }
+
+    private static <T> boolean isFirst(final Object[] arr, final Comparator<? super T> cmp, final int pos) {
+        return pos == 0 || compare(cmp, arr[pos - 1], arr[pos]) != 0;
+    }
+
+    private static <T> Object[] unique(final Object[] arr, final Comparator<? super T> cmp) {
+        int size = 0;
+        for (int i = 0; i < arr.length; i++) {
+            if (isFirst(arr, cmp, i)) {
+                arr[size++] = arr[i];
+            }
+        }
+        return size == arr.length ? arr : Arrays.copyOf(arr, size);
+    }
+
+    private static <T> Object[] parallelUnique(final Object[] arr, final Comparator<? super T> cmp) {
+        final int chunks = Math.min(arr.length / PARALLEL_THRESHOLD + 1, 4 * Runtime.getRuntime().availableProcessors());
+        final int[] bounds = new int[chunks + 1];
+        for (int i = 0; i <= chunks; i++) {
+            bounds[i] = (int) ((long) arr.length * i / chunks);
+        }
+
+        final int[] offsets = new int[chunks + 1];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int count = 0;
+            for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                if (isFirst(arr, cmp, i)) {
+                    count++;
+                }
+            }
+            offsets[c + 1] = count;
+        });
+        Arrays.parallelPrefix(offsets, Integer::sum);
+        if (offsets[chunks] == arr.length) {
+            return arr;
+        }
+
+        final Object[] res = new Object[offsets[chunks]];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int pos = offsets[c];
+            for (int i = bounds[c]; i < bounds[c + 1]; i++) {
+                if (isFirst(arr, cmp, i)) {
+                    res[pos++] = arr[i];
+                }
+            }
+        });
+        return res;
+    }
+
+    /**
+     * Applies batch of changes to sorted elements in one linear pass.
+     * Removals are applied before additions. Of equal elements existing one is kept.
+     *
+     * @param elements current elements in sorted order
+     * @param adds sorted distinct elements to add
+     * @param removes sorted distinct elements to remove
+     * @param cmp comparator, {@code null} for natural ordering
+     * @return sorted array of resulting elements or {@code null} if nothing changed
+     */
+    static <T> Object[] update(final Collection<? extends T> elements, final Object[] adds, final Object[] removes,
+                               final Comparator<? super T> cmp) {
+        final Object[] res = new Object[elements.size() + adds.length];
+        final Iterator<? extends T> it = elements.iterator();
+        Object cur = it.hasNext() ? it.next() : null;
+        int size = 0;
+        int j = 0;
+        int k = 0;
+        boolean changed = false;
+        while (cur != null || j < adds.length) {
+            final int c = cur == null ? 1 : j == adds.length ? -1 : compare(cmp, cur, adds[j]);
+            if (c > 0) {
+                res[size++] = adds[j++];
+                changed = true;
+                continue;
+            }
+            if (c == 0) {
+                j++;
+                res[size++] = cur;
+            } else {
+                while (k < removes.length && compare(cmp, removes[k], cur) < 0) {
+                    k++;
+                }
+                if (k < removes.length && compare(cmp, removes[k], cur) == 0) {
+                    changed = true;
+                } else {
+                    res[size++] = cur;
+                }
+            }
+            cur = it.hasNext() ? it.next() : null;
+        }
+        if (!changed) {
+            return null;
+        }
+        return size == res.length ? res : Arrays.copyOf(res, size);
+    }
+
+    /**
+     * Returns the first position in {@code [from, to)} of sorted list holding element not less than {@code key},
+     * looking at positions {@code from, from + 1, from + 3, from + 7, ...} first, so the cost is logarithmic in distance.
+     */
+    static <T> int gallop(final List<? extends T> list, final int from, final int to, final T key,
+                          final Comparator<? super T> cmp) {
+        int lo = from;
+        int hi = from;
+        int step = 1;
+        while (hi < to && compare(cmp, list.get(hi), key) < 0) {
+            lo = hi + 1;
+            hi = (int) Math.min(to, (long) hi + step);
+            step *= 2;
+        }
+        while (lo < hi) {
+            final int m = (lo + hi) >>> 1;
+            if (compare(cmp, list.get(m), key) < 0) {
+                lo = m + 1;
+            } else {
+                hi = m;
+            }
+        }
+        return lo;
+    }
+
+    private static <T> int skipLess(final List<? extends T> list, final int from, final int to, final T key,
+                                    final Comparator<? super T> cmp, final boolean gallop) {
+        if (gallop) {
+            return gallop(list, from, to, key, cmp);
+        }
+        int pos = from;
+        while (pos < to && compare(cmp, list.get(pos), key) < 0) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Set operation over two sorted lists of distinct elements, defined by which elements it keeps.
+     */
+    static final class Operation {
+        private final boolean onlyA;
+        private final boolean onlyB;
+        private final boolean common;
+
+        Operation(final boolean onlyA, final boolean onlyB, final boolean common) {
+            this.onlyA = onlyA;
+            this.onlyB = onlyB;
+            this.common = common;
+        }
+    }
+
+    static final Operation UNION = new Operation(true, true, true);
+    static final Operation INTERSECTION = new Operation(false, false, true);
+    static final Operation DIFFERENCE = new Operation(true, false, false);
+    static final Operation SYMMETRIC_DIFFERENCE = new Operation(true, true, false);
+
+    private static int copy(final List<?> list, final int from, final int to, final Object[] res, int size) {
+        for (int i = from; i < to; i++) {
+            res[size++] = list.get(i);
+        }
+        return size;
+    }
+
+    private static <T> int merge(final List<? extends T> a, int i, final int n,
+                                 final List<? extends T> b, int j, final int m,
+                                 final Comparator<? super T> cmp, final Operation op,
+                                 final Object[] res, int size) {
+        final boolean gallop = Math.max(n - i, m - j) > GALLOP_RATIO * Math.min(n - i, m - j);
+        while (i < n && j < m) {
+            final int c = compare(cmp, a.get(i), b.get(j));
+            if (c < 0) {
+                final int k = skipLess(a, i, n, b.get(j), cmp, gallop);
+                if (op.onlyA) {
+                    size = copy(a, i, k, res, size);
+                }
+                i = k;
+            } else if (c > 0) {
+                final int k = skipLess(b, j, m, a.get(i), cmp, gallop);
+                if (op.onlyB) {
+                    size = copy(b, j, k, res, size);
+                }
+                j = k;
+            } else {
+                if (op.common) {
+                    res[size++] = a.get(i);
+                }
+                i++;
+                j++;
+            }
+        }
+        if (op.onlyA) {
+            size = copy(a, i, n, res, size);
+        }
+        if (op.onlyB) {
+            size = copy(b, j, m, res, size);
+        }
+        return size;
+    }
+
+    /**
+     * Applies set operation to two lists sorted by the same comparator in {@code O(n + m)},
+     * or {@code O(m log(n / m))} for intersection and difference of very different sizes.
+     * Of equal elements the one from {@code a} is kept.
+     *
+     * @param a the first sorted list of distinct elements
+     * @param b the second sorted list of distinct elements
+     * @param cmp comparator, {@code null} for natural ordering
+     * @param op operation to apply
+     * @param parts number of parts to process in parallel, {@code 1} for sequential processing
+     * @return sorted array of resulting elements
+     */
+    static <T> Object[] apply(final List<? extends T> a, final List<? extends T> b, final Comparator<? super T> cmp,
+                              final Operation op, final int parts) {
+        final boolean splitA = a.size() >= b.size();
+        final List<? extends T> larger = splitA ? a : b;
+        final List<? extends T> smaller = splitA ? b : a;
+        final int count = Math.max(1, Math.min(parts, larger.size() / PARALLEL_THRESHOLD));
+
+        final int[] largerBounds = new int[count + 1];
+        final int[] smallerBounds = new int[count + 1];
+        for (int t = 1; t <= count; t++) {
+            largerBounds[t] = (int) ((long) larger.size() * t / count);
+            smallerBounds[t] = t == count
+                    ? smaller.size()
+                    : gallop(smaller, smallerBounds[t - 1], smaller.size(), larger.get(largerBounds[t]), cmp);
+        }
+        final int[] aBounds = splitA ? largerBounds : smallerBounds;
+        final int[] bBounds = splitA ? smallerBounds : largerBounds;
+
+        final Object[][] results = new Object[count][];
+        final int[] sizes = new int[count];
+        IntStream.range(0, count).parallel().forEach(t -> {
+            final int n = aBounds[t + 1] - aBounds[t];
+            final int m = bBounds[t + 1] - bBounds[t];
+            results[t] = new Object[(op.onlyA ? n : 0) + (op.onlyB ? m : 0) + (op.onlyA || op.onlyB ? 0 : Math.min(n, m))];
+            sizes[t] = merge(a, aBounds[t], aBounds[t + 1], b, bBounds[t], bBounds[t + 1], cmp, op, results[t], 0);
+        });
+        if (count == 1) {
+            return sizes[0] == results[0].length ? results[0] : Arrays.copyOf(results[0], sizes[0]);
+        }
+
+        final Object[] res = new Object[Arrays.stream(sizes).sum()];
+        int size = 0;
+        for (int t = 0; t < count; t++) {
+            System.arraycopy(results[t], 0, res, size, sizes[t]);
+            size += sizes[t];
+        }
+        return res;
+    }
+
+    /**
+     * Finds positions of the first elements not less than each of probes in one sweep.
+     * Search for each probe gallops from position found for the previous one,
+     * so sorted probes cost {@code O(m log(n / m))} in total, and unsorted ones are still answered correctly.
+     *
+     * @param list sorted list to search in
+     * @param probes elements to look for
+     * @param cmp comparator, {@code null} for natural ordering
+     * @param parts number of parts of probes processed in parallel, {@code 1} for sequential processing
+     * @return lower bound position for each probe
+     */
+    static <T> int[] lowerBounds(final List<? extends T> list, final List<? extends T> probes,
+                                 final Comparator<? super T> cmp, final int parts) {
+        final int[] res = new int[probes.size()];
+        final int count = Math.max(1, Math.min(parts, probes.size() / PARALLEL_THRESHOLD));
+        IntStream.range(0, count).parallel().forEach(t -> {
+            final int from = (int) ((long) probes.size() * t / count);
+            final int to = (int) ((long) probes.size() * (t + 1) / count);
+            int pos = 0;
+            T prev = null;
+            for (int i = from; i < to; i++) {
+                final T probe = probes.get(i);
+                if (prev != null && compare(cmp, probe, prev) < 0) {
+                    pos = 0;
+                }
+                pos = gallop(list, pos, list.size(), probe, cmp);
+                res[i] = pos;
+                prev = probe;
+            }
+        });
+        return res;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.ifmo.rain.kurbatov.benchmark;
+
+import ru.ifmo.rain.kurbatov.arrayset.ArraySet;
+import ru.ifmo.rain.kurbatov.arrayset.IntArraySet;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Compares lookups in {@link ArraySet}, its {@link ArraySet#ofCacheFriendly cache-friendly} layout,
+ * {@link IntArraySet} and {@link TreeSet}.
+ * Set sizes may be passed as arguments, e.g. {@code 1000 10000 100000 1000000 10000000 100000000}
+ * to get latency curve (the largest ones need several gigabytes of heap).
+ */
+public class ArraySetBenchmark {
+    private static final int PROBES = 1 << 20;
+
+    public static void main(final String[] args) {
+        final Random random = new Random(8682522807148012L);
+        for (final int size : Bench.sizes(args, 1_000, 100_000, 1_000_000)) {
+            final int[] values = random.ints(size, 0, 2 * size).toArray();
+            final int[] probes = random.ints(PROBES, 0, 2 * size).toArray();
+            final List<Integer> boxed = Arrays.stream(values).boxed().collect(Collectors.toList());
+
+            final TreeSet<Integer> treeSet = new TreeSet<>(boxed);
+            final ArraySet<Integer> arraySet = new ArraySet<>(boxed);
+            final ArraySet<Integer> cacheFriendlySet = ArraySet.ofCacheFriendly(boxed);
+            final IntArraySet intSet = IntArraySet.of(values);
+
+            System.out.println("size = " + size);
+            floor("TreeSet.floor", treeSet, probes);
+            floor("ArraySet.floor", arraySet, probes);
+            floor("ArraySet.ofCacheFriendly.floor", cacheFriendlySet, probes);
+            floor("IntArraySet.floor", intSet, probes);
+            Bench.measure("IntArraySet.floorInt", PROBES, () -> {
+                long acc = 0;
+                for (final int probe : probes) {
+                    acc += intSet.floorInt(probe, -1);
+                }
+                return acc;
+            });
+        }
+    }
+
+    private static void floor(final String name, final NavigableSet<Integer> set, final int[] probes) {
+        Bench.measure(name, probes.length, () -> {
+            long acc = 0;
+            for (final int probe : probes) {
+                final Integer res = set.floor(probe);
+                acc += res == null ? -1 : res;
+            }
+            return acc;
+        });
+    }
+}
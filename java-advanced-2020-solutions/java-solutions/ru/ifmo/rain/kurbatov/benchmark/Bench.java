@@ -0,0 +1,107 @@
+package ru.ifmo.rain.kurbatov.benchmark;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal measurement harness: warms operation up and reports average time of single call.
+ */
+final class Bench {
+    private static final int WARMUPS = 5;
+    private static final int RUNS = 10;
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final LongAdder FINISHED_ALLOCATED = new LongAdder();
+
+    @SuppressWarnings("unused")
+    private static volatile long sink;
+
+    private Bench() {
+    }
+
+    /**
+     * Measures given batch of operations.
+     *
+     * @param name name to print
+     * @param ops number of operations made by single call of {@code batch}
+     * @param batch operations to measure, result is consumed to prevent dead code elimination
+     * @return average time of single operation in nanoseconds
+     */
+    static double measure(final String name, final long ops, final LongSupplier batch) {
+        long acc = 0;
+        for (int i = 0; i < WARMUPS; i++) {
+            acc += batch.getAsLong();
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            acc += batch.getAsLong();
+        }
+        final double res = (double) (System.nanoTime() - start) / RUNS / ops;
+        sink = acc;
+        System.out.printf("%-50s %12.2f ns/op%n", name, res);
+        return res;
+    }
+
+    /**
+     * Measures given batch of operations together with bytes allocated by all threads during it.
+     * Threads which terminate during measurement are counted only if they are made by {@link #countingThreads()}.
+     *
+     * @param name name to print
+     * @param ops number of operations made by single call of {@code batch}
+     * @param batch operations to measure, result is consumed to prevent dead code elimination
+     * @return average time of single operation in nanoseconds
+     */
+    static double measureAllocations(final String name, final long ops, final LongSupplier batch) {
+        long acc = 0;
+        for (int i = 0; i < WARMUPS; i++) {
+            acc += batch.getAsLong();
+        }
+        final long allocated = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            acc += batch.getAsLong();
+        }
+        final double res = (double) (System.nanoTime() - start) / RUNS / ops;
+        final double bytes = (double) (allocatedBytes() - allocated) / RUNS / ops;
+        sink = acc;
+        System.out.printf("%-50s %12.2f ns/op %12.2f B/op%n", name, res, bytes);
+        return res;
+    }
+
+    /**
+     * Returns factory of threads whose allocations are counted by {@link #measureAllocations} after they terminate.
+     *
+     * @return {@link ThreadFactory} of counted threads
+     */
+    static ThreadFactory countingThreads() {
+        return task -> new Thread(() -> {
+            try {
+                task.run();
+            } finally {
+                FINISHED_ALLOCATED.add(THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()));
+            }
+        });
+    }
+
+    private static long allocatedBytes() {
+        long res = FINISHED_ALLOCATED.sum();
+        for (final long bytes : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+            res += Math.max(0, bytes);
+        }
+        return res;
+    }
+
+    static int[] sizes(final String[] args, final int... defaults) {
+        if (args.length == 0) {
+            return defaults;
+        }
+        final int[] res = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            res[i] = Integer.parseInt(args[i]);
+        }
+        return res;
+    }
+}
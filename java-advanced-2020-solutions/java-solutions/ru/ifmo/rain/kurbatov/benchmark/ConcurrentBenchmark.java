@@ -0,0 +1,135 @@
+package ru.ifmo.rain.kurbatov.benchmark;
+
+import info.kgeorgiy.java.advanced.concurrent.AdvancedIP;
+import ru.ifmo.rain.kurbatov.concurrent.IterativeParallelism;
+import ru.ifmo.rain.kurbatov.concurrent.ParallelMapperImpl;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Measures {@code maximum}, {@code filter}, {@code map}, {@code join}, {@code reduce} and {@code mapReduce}
+ * of {@link IterativeParallelism} with thread per chunk and on {@link ParallelMapperImpl},
+ * against parallel streams on {@link ForkJoinPool} of the same parallelism.
+ * Every operation is measured for one thread and all processors, for cheap elements and for elements
+ * costing {@value #HEAVY_COST} iterations of arithmetic loop. Time and allocated bytes are reported per element.
+ * List sizes may be passed as arguments.
+ */
+public class ConcurrentBenchmark {
+    private static final int HEAVY_COST = 100;
+
+    public static void main(final String[] args) throws Exception {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int[] threadCounts = processors == 1 ? new int[]{1} : new int[]{1, processors};
+        final Random random = new Random(6091820452118L);
+        for (final int size : Bench.sizes(args, 10_000, 1_000_000)) {
+            final List<Integer> values = random.ints(size).boxed().collect(Collectors.toList());
+            for (final int threads : threadCounts) {
+                for (final int cost : new int[]{0, HEAVY_COST}) {
+                    System.out.println("size = " + size + ", threads = " + threads + ", cost = " + cost);
+                    final Ops ops = new Ops(values, cost);
+                    run("threads", threads, ops, new IterativeParallelism(Bench.countingThreads()));
+                    try (final ParallelMapperImpl mapper = new ParallelMapperImpl(threads)) {
+                        run("mapper", threads, ops, new IterativeParallelism(mapper));
+                    }
+                    runStreams(threads, ops);
+                }
+            }
+        }
+    }
+
+    /**
+     * Operations on fixed list with given cost of single element.
+     */
+    private static class Ops {
+        private final List<Integer> values;
+        private final int cost;
+        private final Comparator<Integer> comparator;
+        private final AdvancedIP.Monoid<Integer> monoid;
+
+        Ops(final List<Integer> values, final int cost) {
+            this.values = values;
+            this.cost = cost;
+            comparator = (a, b) -> Integer.compare(spin(a, cost), spin(b, cost));
+            monoid = new AdvancedIP.Monoid<>(0, (a, b) -> spin(a, cost) + b);
+        }
+
+        boolean test(final Integer value) {
+            return (spin(value, cost) & 1) == 0;
+        }
+
+        Integer apply(final Integer value) {
+            return spin(value, cost);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Op {
+        long run() throws InterruptedException;
+    }
+
+    private static void run(final String name, final int threads, final Ops ops, final IterativeParallelism parallelism) {
+        final List<Integer> values = ops.values;
+        measure("maximum " + name, values.size(), () -> parallelism.maximum(threads, values, ops.comparator));
+        measure("filter " + name, values.size(), () -> parallelism.filter(threads, values, ops::test).size());
+        measure("map " + name, values.size(), () -> parallelism.map(threads, values, ops::apply).size());
+        if (ops.cost == 0) {
+            measure("join " + name, values.size(), () -> parallelism.join(threads, values).length());
+        }
+        measure("reduce " + name, values.size(), () -> parallelism.reduce(threads, values, ops.monoid));
+        measure("mapReduce " + name, values.size(), () -> parallelism.mapReduce(threads, values, ops::apply, ops.monoid));
+    }
+
+    private static void runStreams(final int threads, final Ops ops) {
+        final List<Integer> values = ops.values;
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            measure("maximum streams", values.size(), () -> inPool(pool, () -> values.parallelStream().max(ops.comparator).orElseThrow()));
+            measure("filter streams", values.size(), () -> inPool(pool, () -> values.parallelStream().filter(ops::test).collect(Collectors.toList()).size()));
+            measure("map streams", values.size(), () -> inPool(pool, () -> values.parallelStream().map(ops::apply).collect(Collectors.toList()).size()));
+            if (ops.cost == 0) {
+                measure("join streams", values.size(), () -> inPool(pool, () -> values.parallelStream().map(Object::toString).collect(Collectors.joining()).length()));
+            }
+            measure("reduce streams", values.size(), () -> inPool(pool, () -> values.parallelStream().reduce(ops.monoid.getIdentity(), ops.monoid.getOperator())));
+            measure("mapReduce streams", values.size(), () -> inPool(pool, () -> values.parallelStream().map(ops::apply).reduce(ops.monoid.getIdentity(), ops.monoid.getOperator())));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static long inPool(final ForkJoinPool pool, final Op op) throws InterruptedException {
+        try {
+            return pool.submit(() -> {
+                try {
+                    return op.run();
+                } catch (final InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }).get();
+        } catch (final ExecutionException e) {
+            throw new AssertionError(e.getCause());
+        }
+    }
+
+    private static void measure(final String name, final int size, final Op op) {
+        Bench.measureAllocations(name, size, () -> {
+            try {
+                return op.run();
+            } catch (final InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    private static int spin(final int value, final int cost) {
+        int acc = value;
+        for (int i = 0; i < cost; i++) {
+            acc = acc * 1_103_515_245 + 12_345;
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.ifmo.rain.kurbatov.benchmark;
+
+import ru.ifmo.rain.kurbatov.concurrent.IterativeParallelism;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares equal static split, dynamically claimed chunks and weighted split of {@link IterativeParallelism}
+ * on lists whose elements have skewed cost: expensive head and linearly growing cost.
+ * Arguments are number of threads and size of list.
+ */
+public class SkewBenchmark {
+    private static final int UNIT = 200;
+
+    public static void main(final String[] args) throws Exception {
+        final int[] params = Bench.sizes(args, Runtime.getRuntime().availableProcessors(), 20_000);
+        final int threads = params[0];
+        final int size = params[1];
+        System.out.println("threads = " + threads + ", size = " + size);
+
+        run("hot head", size, i -> i < size / 8 ? 32 : 1, threads);
+        run("ramp", size, i -> 1 + 32 * i / size, threads);
+    }
+
+    private static void run(final String workload, final int size, final IntUnaryOperator cost, final int threads) throws Exception {
+        final List<Integer> costs = IntStream.range(0, size).map(cost).boxed().collect(Collectors.toList());
+        final IterativeParallelism parallelism = new IterativeParallelism();
+
+        Bench.measure(workload + " static split", size, () -> staticSplit(threads, costs));
+        Bench.measure(workload + " dynamic chunks", size, () -> {
+            try {
+                return parallelism.map(threads, costs, SkewBenchmark::spin).size();
+            } catch (final InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        });
+        Bench.measure(workload + " weighted split", size, () -> {
+            try {
+                return parallelism.map(threads, costs, SkewBenchmark::spin, Integer::longValue).size();
+            } catch (final InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    /**
+     * Baseline: one thread per equal contiguous range.
+     */
+    private static long staticSplit(final int threads, final List<Integer> costs) {
+        final long[] res = new long[threads];
+        final List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            final int from = (int) ((long) costs.size() * t / threads);
+            final int to = (int) ((long) costs.size() * (t + 1) / threads);
+            workers.add(new Thread(() -> {
+                for (final Integer c : costs.subList(from, to)) {
+                    res[index] += spin(c);
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (final Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (final InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+        long acc = 0;
+        for (final long r : res) {
+            acc += r;
+        }
+        return acc;
+    }
+
+    private static Integer spin(final Integer cost) {
+        int acc = cost;
+        for (int i = 0; i < cost * UNIT; i++) {
+            acc = acc * 1_103_515_245 + 12_345;
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.ifmo.rain.kurbatov.benchmark;
+
+import ru.ifmo.rain.kurbatov.arrayset.ArraySet;
+import ru.ifmo.rain.kurbatov.arrayset.FrontCodedStringSet;
+
+import java.lang.ref.Reference;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Compares memory footprint and lookups of {@link FrontCodedStringSet}, {@link ArraySet} and {@link TreeSet}
+ * on URL-like dictionary with long shared prefixes.
+ * Dictionary sizes may be passed as arguments.
+ */
+public class StringSetBenchmark {
+    private static final int PROBES = 1 << 18;
+    private static final String[] HOSTS = {"https://www.example.com/", "https://docs.example.org/api/", "http://mirror.example.net/pub/"};
+
+    public static void main(final String[] args) {
+        final Random random = new Random(3178563241L);
+        for (final int size : Bench.sizes(args, 10_000, 1_000_000)) {
+            final List<String> words = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                words.add(word(random));
+            }
+            final String[] probes = new String[PROBES];
+            for (int i = 0; i < PROBES; i++) {
+                probes[i] = random.nextBoolean() ? words.get(random.nextInt(size)) : word(random);
+            }
+
+            System.out.println("size = " + size);
+            final NavigableSet<String> treeSet = measureMemory("TreeSet", words, TreeSet::new);
+            final NavigableSet<String> arraySet = measureMemory("ArraySet", words, ArraySet::new);
+            final NavigableSet<String> frontCoded = measureMemory("FrontCodedStringSet", words, FrontCodedStringSet::new);
+            ceiling("TreeSet.ceiling", treeSet, probes);
+            ceiling("ArraySet.ceiling", arraySet, probes);
+            ceiling("FrontCodedStringSet.ceiling", frontCoded, probes);
+            Bench.measure("FrontCodedStringSet.iterator", frontCoded.size(), () -> {
+                long acc = 0;
+                for (final String s : frontCoded) {
+                    acc += s.length();
+                }
+                return acc;
+            });
+        }
+    }
+
+    private static String word(final Random random) {
+        final StringBuilder sb = new StringBuilder(HOSTS[random.nextInt(HOSTS.length)]);
+        for (int depth = 1 + random.nextInt(3); depth > 0; depth--) {
+            sb.append("section-").append(random.nextInt(50)).append('/');
+        }
+        return sb.append("page-").append(random.nextInt(100_000)).append(".html").toString();
+    }
+
+    /**
+     * Prints heap retained by set built by {@code factory} from fresh copies of {@code words}.
+     */
+    private static NavigableSet<String> measureMemory(
+            final String name,
+            final List<String> words,
+            final Function<List<String>, NavigableSet<String>> factory
+    ) {
+        final long before = usedMemory();
+        final List<String> copy = new ArrayList<>(words.size());
+        for (final String word : words) {
+            copy.add(new String(word.toCharArray()));
+        }
+        final NavigableSet<String> set = factory.apply(copy);
+        copy.clear();
+        final long used = usedMemory() - before;
+        // source strings must not be collected in between
+        Reference.reachabilityFence(words);
+        System.out.printf("%-50s %12.2f bytes/elem%n", name + " memory", (double) used / set.size());
+        return set;
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void ceiling(final String name, final NavigableSet<String> set, final String[] probes) {
+        Bench.measure(name, probes.length, () -> {
+            long acc = 0;
+            for (final String probe : probes) {
+                final String res = set.ceiling(probe);
+                acc += res == null ? -1 : res.length();
+            }
+            return acc;
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package ru.ifmo.rain.kurbatov.benchmark;
+
+import ru.ifmo.rain.kurbatov.concurrent.IterativeParallelism;
+import ru.ifmo.rain.kurbatov.concurrent.ParallelMapperImpl;
+
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares thread-per-chunk {@link IterativeParallelism}, pooled {@link ParallelMapperImpl}
+ * and both of them running on virtual threads, on CPU-bound and blocking functions.
+ * Virtual threads are looked up reflectively, so on JDK without them only the first two modes are measured.
+ * Arguments are number of threads and concurrency limit of virtual mode.
+ */
+public class ThreadModeBenchmark {
+    private static final int CPU_SIZE = 100_000;
+    private static final int BLOCKING_SIZE = 1_000;
+
+    public static void main(final String[] args) throws Exception {
+        final int[] params = Bench.sizes(args, Runtime.getRuntime().availableProcessors(), 256);
+        final int threads = params[0];
+        final int concurrency = params[1];
+        final ThreadFactory virtual = virtualThreadFactory();
+        if (virtual == null) {
+            System.out.println("Virtual threads are not available, skipping virtual modes");
+        }
+
+        run("cpu", CPU_SIZE, ThreadModeBenchmark::spin, threads, concurrency, virtual);
+        run("blocking", BLOCKING_SIZE, ThreadModeBenchmark::sleep, threads, concurrency, virtual);
+    }
+
+    private static void run(
+            final String workload,
+            final int size,
+            final Function<Integer, Integer> f,
+            final int threads,
+            final int concurrency,
+            final ThreadFactory virtual
+    ) throws Exception {
+        final List<Integer> values = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        System.out.println(workload + ", size = " + size + ", threads = " + threads + ", concurrency = " + concurrency);
+
+        measure(workload + " thread per chunk", values, f, new IterativeParallelism(), threads);
+        try (final ParallelMapperImpl mapper = new ParallelMapperImpl(threads)) {
+            measure(workload + " pooled", values, f, new IterativeParallelism(mapper), threads);
+            measureMapper(workload + " pooled mapper", values, f, mapper);
+        }
+        if (virtual != null) {
+            measure(workload + " virtual per chunk", values, f, new IterativeParallelism(virtual), threads);
+            try (final ParallelMapperImpl mapper = new ParallelMapperImpl(virtual, concurrency)) {
+                measureMapper(workload + " virtual mapper", values, f, mapper);
+            }
+        }
+    }
+
+    private static void measure(
+            final String name,
+            final List<Integer> values,
+            final Function<Integer, Integer> f,
+            final IterativeParallelism parallelism,
+            final int threads
+    ) {
+        Bench.measure(name, values.size(), () -> {
+            try {
+                return parallelism.map(threads, values, f).size();
+            } catch (final InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    private static void measureMapper(
+            final String name,
+            final List<Integer> values,
+            final Function<Integer, Integer> f,
+            final ParallelMapperImpl mapper
+    ) {
+        Bench.measure(name, values.size(), () -> {
+            try {
+                return mapper.map(f, values).size();
+            } catch (final InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    private static Integer spin(final Integer value) {
+        int acc = value;
+        for (int i = 0; i < 1_000; i++) {
+            acc = acc * 1_103_515_245 + 12_345;
+        }
+        return acc;
+    }
+
+    private static Integer sleep(final Integer value) {
+        try {
+            Thread.sleep(1);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) builder.getClass().getMethod("factory").invoke(builder);
+        } catch (final ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains micro-benchmarks of home-work implementations, runnable via {@code main} methods.
+ * @author Darui99
+ */
+package ru.ifmo.rain.kurbatov.benchmark;
@@ -0,0 +1,170 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Parallel operations over slices of {@code double} arrays without boxing:
+ * counterpart of {@link info.kgeorgiy.java.advanced.concurrent.ScalarIP}, {@link info.kgeorgiy.java.advanced.concurrent.ListIP}
+ * and {@link info.kgeorgiy.java.advanced.concurrent.AdvancedIP}.
+ * Overloads without bounds process the whole array.
+ *
+ * @see PrimitiveParallelism
+ */
+public interface DoubleIP {
+    /**
+     * Sums values of slice.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @return sum of values
+     * @throws InterruptedException if some thread was interrupted
+     */
+    double sum(int threads, double[] values, int from, int to) throws InterruptedException;
+
+    /**
+     * Finds maximum value of slice.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @return maximum value
+     * @throws InterruptedException if some thread was interrupted
+     * @throws IllegalArgumentException if slice is empty
+     */
+    double maximum(int threads, double[] values, int from, int to) throws InterruptedException;
+
+    /**
+     * Finds minimum value of slice.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @return minimum value
+     * @throws InterruptedException if some thread was interrupted
+     * @throws IllegalArgumentException if slice is empty
+     */
+    double minimum(int threads, double[] values, int from, int to) throws InterruptedException;
+
+    /**
+     * Checks that all values of slice satisfy predicate.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param predicate test predicate
+     * @return whether all values satisfy {@code predicate}
+     * @throws InterruptedException if some thread was interrupted
+     */
+    boolean all(int threads, double[] values, int from, int to, DoublePredicate predicate) throws InterruptedException;
+
+    /**
+     * Checks that any value of slice satisfies predicate.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param predicate test predicate
+     * @return whether any value satisfies {@code predicate}
+     * @throws InterruptedException if some thread was interrupted
+     */
+    boolean any(int threads, double[] values, int from, int to, DoublePredicate predicate) throws InterruptedException;
+
+    /**
+     * Filters values of slice.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param predicate filter predicate
+     * @return values satisfying {@code predicate} in original order
+     * @throws InterruptedException if some thread was interrupted
+     */
+    double[] filter(int threads, double[] values, int from, int to, DoublePredicate predicate) throws InterruptedException;
+
+    /**
+     * Maps values of slice.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param f mapping function
+     * @return mapped values
+     * @throws InterruptedException if some thread was interrupted
+     */
+    double[] map(int threads, double[] values, int from, int to, DoubleUnaryOperator f) throws InterruptedException;
+
+    /**
+     * Reduces values of slice via associative operator.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param identity identity element of {@code operator}
+     * @param operator associative operator
+     * @return reduced value
+     * @throws InterruptedException if some thread was interrupted
+     */
+    double reduce(int threads, double[] values, int from, int to, double identity, DoubleBinaryOperator operator) throws InterruptedException;
+
+    /**
+     * Counts values of slice in {@code bins} equal bins of range {@code [min, max)}; values out of range are ignored.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param min lower bound of the first bin
+     * @param max upper bound of the last bin
+     * @param bins number of bins
+     * @return counts of values in bins
+     * @throws InterruptedException if some thread was interrupted
+     */
+    long[] histogram(int threads, double[] values, int from, int to, double min, double max, int bins) throws InterruptedException;
+
+    default double sum(final int threads, final double[] values) throws InterruptedException {
+        return sum(threads, values, 0, values.length);
+    }
+
+    default double maximum(final int threads, final double[] values) throws InterruptedException {
+        return maximum(threads, values, 0, values.length);
+    }
+
+    default double minimum(final int threads, final double[] values) throws InterruptedException {
+        return minimum(threads, values, 0, values.length);
+    }
+
+    default boolean all(final int threads, final double[] values, final DoublePredicate predicate) throws InterruptedException {
+        return all(threads, values, 0, values.length, predicate);
+    }
+
+    default boolean any(final int threads, final double[] values, final DoublePredicate predicate) throws InterruptedException {
+        return any(threads, values, 0, values.length, predicate);
+    }
+
+    default double[] filter(final int threads, final double[] values, final DoublePredicate predicate) throws InterruptedException {
+        return filter(threads, values, 0, values.length, predicate);
+    }
+
+    default double[] map(final int threads, final double[] values, final DoubleUnaryOperator f) throws InterruptedException {
+        return map(threads, values, 0, values.length, f);
+    }
+
+    default double reduce(final int threads, final double[] values, final double identity, final DoubleBinaryOperator operator) throws InterruptedException {
+        return reduce(threads, values, 0, values.length, identity, operator);
+    }
+
+    default long[] histogram(final int threads, final double[] values, final double min, final double max, final int bins) throws InterruptedException {
+        return histogram(threads, values, 0, values.length, min, max, bins);
+    }
+}
@@ -4,21 +4,122 @@ import info.kgeorgiy.java.advanced.concurrent.AdvancedIP;
 import info.kgeorgiy.java.advanced.mapper.ParallelMapper;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class IterativeParallelism implements AdvancedIP {
+public class IterativeParallelism implements AdvancedIP, AutoCloseable {
+    private static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 10;
+    private static final int CHUNKS_PER_THREAD = 8;
+    private static final int MIN_CHUNK_SIZE = 64;
 
     private final ParallelMapper mapper;
+    private final ThreadFactory threadFactory;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final int sequentialThreshold;
 
     public IterativeParallelism() {
-        mapper = null;
+        this(null, Thread::new, null, false, 0);
     }
 
     public IterativeParallelism(final ParallelMapper mapper) {
+        this(mapper, null, null, false, 0);
+    }
+
+    /**
+     * Makes instance which runs every chunk in new thread made by given factory, e.g. in virtual thread.
+     *
+     * @param threadFactory is factory of threads for chunks
+     */
+    public IterativeParallelism(final ThreadFactory threadFactory) {
+        this(null, Objects.requireNonNull(threadFactory), null, false, 0);
+    }
+
+    /**
+     * Makes instance which runs chunks as tasks of given {@link Executor}, e.g. {@link java.util.concurrent.ForkJoinPool}.
+     * Lists shorter than {@value #DEFAULT_SEQUENTIAL_THRESHOLD} are processed in calling thread.
+     *
+     * @param executor is executor to run chunks on
+     */
+    public IterativeParallelism(final Executor executor) {
+        this(executor, DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    /**
+     * Makes instance which runs chunks as tasks of given {@link Executor}.
+     *
+     * @param executor is executor to run chunks on
+     * @param sequentialThreshold is size of list starting from which it is processed in parallel
+     */
+    public IterativeParallelism(final Executor executor, final int sequentialThreshold) {
+        this(null, null, Objects.requireNonNull(executor), false, sequentialThreshold);
+    }
+
+    /**
+     * Makes instance which runs chunks on its own pool of given number of threads, which live until {@link #close()}.
+     * Lists shorter than {@value #DEFAULT_SEQUENTIAL_THRESHOLD} are processed in calling thread.
+     *
+     * @param poolSize is number of threads in pool
+     */
+    public IterativeParallelism(final int poolSize) {
+        this(null, null, newPool(poolSize), true, DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    private IterativeParallelism(
+            final ParallelMapper mapper,
+            final ThreadFactory threadFactory,
+            final Executor executor,
+            final boolean ownsExecutor,
+            final int sequentialThreshold
+    ) {
         this.mapper = mapper;
+        this.threadFactory = threadFactory;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.sequentialThreshold = sequentialThreshold;
+    }
+
+    private static ExecutorService newPool(final int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Threads count must be positive");
+        }
+        return Executors.newFixedThreadPool(poolSize, task -> {
+            final Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops threads of own pool, if there is one. Executors and mappers given from outside are left running.
+     */
+    @Override
+    public void close() {
+        if (!ownsExecutor) {
+            return;
+        }
+        final ExecutorService pool = (ExecutorService) executor;
+        pool.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     private void joinThreads(final List<Thread> threads) throws InterruptedException {
@@ -42,43 +143,271 @@ public class IterativeParallelism implements AdvancedIP {
         }
     }
 
-    private <T> List<List<T>> split(final int cnt, final List<T> arr) {
-        final int block = arr.size() / cnt;
-        final int rem = arr.size() % cnt;
+    /**
+     * Function of contiguous range {@code [from, to)} of indices.
+     *
+     * @param <R> type of result
+     */
+    @FunctionalInterface
+    interface RangeFunction<R> {
+        R apply(int from, int to);
+    }
+
+    /**
+     * Function of {@code index}-th contiguous range {@code [from, to)} of indices.
+     *
+     * @param <R> type of result
+     */
+    @FunctionalInterface
+    interface IndexedRangeFunction<R> {
+        R apply(int index, int from, int to);
+    }
+
+    private static List<int[]> split(final int cnt, final int size) {
+        final int block = size / cnt;
+        final int rem = size % cnt;
         int r = 0;
 
-        final List<List<T>> res = new ArrayList<>();
+        final List<int[]> res = new ArrayList<>();
         for (int i = 0; i < cnt; i++) {
             final int l = r;
             r = l + block + (i < rem ? 1 : 0);
-            res.add(arr.subList(l, r));
+            res.add(new int[]{l, r});
+        }
+        return res;
+    }
+
+    /**
+     * Splits values into at most {@code cnt} contiguous ranges of nearly equal total weight.
+     */
+    private static <T> List<int[]> split(final int cnt, final List<? extends T> values, final ToLongFunction<? super T> weight) {
+        final long[] prefix = new long[values.size() + 1];
+        int i = 0;
+        for (final T value : values) {
+            final long w = weight.applyAsLong(value);
+            if (w < 0) {
+                throw new IllegalArgumentException("Weight must be non-negative");
+            }
+            prefix[i + 1] = prefix[i] + w;
+            i++;
+        }
+        final long total = prefix[values.size()];
+        if (total == 0) {
+            return split(cnt, values.size());
+        }
+
+        final List<int[]> res = new ArrayList<>();
+        int l = 0;
+        for (int k = 1; k <= cnt && l < values.size(); k++) {
+            final long target = k == cnt ? total : (long) ((double) total * k / cnt);
+            int r = Arrays.binarySearch(prefix, l + 1, prefix.length, target);
+            if (r < 0) {
+                r = -r - 1;
+            } else {
+                // first of equal prefixes, so zero-weight tail goes to the next range
+                while (r > l + 1 && prefix[r - 1] == target) {
+                    r--;
+                }
+            }
+            r = Math.min(r, values.size());
+            if (k == cnt) {
+                r = values.size();
+            }
+            res.add(new int[]{l, r});
+            l = r;
         }
         return res;
     }
 
-    private <T, R> List<R> processParallelFunc(final List<List<T>> chunks,
-                                               final Function<? super Stream<T>, R> func) throws InterruptedException {
-        final List<R> res = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+    /**
+     * Number of ranges to split {@code size} elements into for {@code threads} threads.
+     * Several ranges per thread are claimed dynamically, so thread which got cheap elements takes more of them.
+     * Results of ranges are merged sequentially, so short lists are not split into more than one range per thread.
+     */
+    private static int chunksCount(final int threads, final int size) {
+        if (threads == 1 || size == 0) {
+            return 1;
+        }
+        final long perThread = Math.max(1, Math.min(CHUNKS_PER_THREAD, size / ((long) threads * MIN_CHUNK_SIZE)));
+        return (int) Math.min(size, threads * perThread);
+    }
+
+    /**
+     * Applies function to ranges claimed one by one from shared cursor and stores results by index of range.
+     */
+    private static <R> Runnable claimer(
+            final List<int[]> ranges,
+            final IndexedRangeFunction<R> func,
+            final AtomicInteger cursor,
+            final List<R> res
+    ) {
+        return () -> {
+            for (int i = cursor.getAndIncrement(); i < ranges.size(); i = cursor.getAndIncrement()) {
+                final int[] range = ranges.get(i);
+                res.set(i, func.apply(i, range[0], range[1]));
+            }
+        };
+    }
+
+    private <R> List<R> processParallelFunc(final int workers,
+                                            final List<int[]> ranges,
+                                            final IndexedRangeFunction<R> func) throws InterruptedException {
+        final List<R> res = new ArrayList<>(Collections.nCopies(ranges.size(), null));
+        final AtomicInteger cursor = new AtomicInteger();
         final List<Thread> threads = new ArrayList<>();
-        for (int i = 0; i < chunks.size(); i++) {
-            final int pos = i;
-            threads.add(new Thread(() -> res.set(pos, func.apply(chunks.get(pos).stream()))));
+        for (int i = 0; i < workers; i++) {
+            threads.add(threadFactory.newThread(claimer(ranges, func, cursor, res)));
             threads.get(i).start();
         }
         joinThreads(threads);
         return res;
     }
 
-    private <T, R> R getParallelFunc(int threadsCount, final List<T> arr,
-                                     final Function<? super Stream<T>, R> func,
-                                     final Function<? super Stream<R>, R> merger) throws InterruptedException {
+    private <R> List<R> processOnMapper(final int workers,
+                                        final List<int[]> ranges,
+                                        final IndexedRangeFunction<R> func) throws InterruptedException {
+        final List<R> res = new ArrayList<>(Collections.nCopies(ranges.size(), null));
+        final Runnable claimer = claimer(ranges, func, new AtomicInteger(), res);
+        mapper.map(worker -> {
+            claimer.run();
+            return null;
+        }, Collections.nCopies(workers, null));
+        return res;
+    }
+
+    private <R> List<R> processOnExecutor(final int workers,
+                                          final List<int[]> ranges,
+                                          final IndexedRangeFunction<R> func) throws InterruptedException {
+        final List<R> res = new ArrayList<>(Collections.nCopies(ranges.size(), null));
+        final AtomicInteger cursor = new AtomicInteger();
+        final List<ClaimerTask> tasks = new ArrayList<>();
+        try {
+            for (int i = 1; i < workers; i++) {
+                final ClaimerTask task = new ClaimerTask(claimer(ranges, func, cursor, res));
+                tasks.add(task);
+                executor.execute(task);
+            }
+            claimer(ranges, func, cursor, res).run();
+            // tasks still queued behind busy workers or behind the caller itself have nothing left to claim
+            for (final ClaimerTask task : tasks) {
+                if (!task.cancelIfNotStarted()) {
+                    task.get();
+                }
+            }
+            return res;
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            cursor.set(ranges.size());
+            tasks.forEach(ClaimerTask::cancelIfNotStarted);
+        }
+    }
+
+    /**
+     * Executor task running claimer, which may be cancelled by caller until executor starts it.
+     */
+    private static class ClaimerTask extends FutureTask<Void> {
+        private final AtomicBoolean started;
+
+        ClaimerTask(final Runnable claimer) {
+            this(claimer, new AtomicBoolean());
+        }
+
+        private ClaimerTask(final Runnable claimer, final AtomicBoolean started) {
+            super(() -> {
+                if (started.compareAndSet(false, true)) {
+                    claimer.run();
+                }
+            }, null);
+            this.started = started;
+        }
+
+        /**
+         * Cancels task if executor has not started it yet.
+         *
+         * @return {@code true} if task will not run claimer
+         */
+        boolean cancelIfNotStarted() {
+            if (!started.compareAndSet(false, true)) {
+                return false;
+            }
+            cancel(false);
+            return true;
+        }
+    }
+
+    /**
+     * Splits indices {@code [0, size)} into contiguous ranges, several per thread, and applies function to them
+     * by at most {@code threadsCount} parallel threads.
+     *
+     * @return results for ranges in order of ranges
+     */
+    <R> List<R> runRanges(final int threadsCount, final int size, final RangeFunction<R> func) throws InterruptedException {
+        return runIndexedRanges(threadsCount, size, (index, from, to) -> func.apply(from, to));
+    }
+
+    /**
+     * Same as {@link #runRanges(int, int, RangeFunction)}, but function also gets index of range.
+     * Ranges depend only on {@code threadsCount} and {@code size}, so passes over the same list may pair their results by index.
+     *
+     * @return results for ranges in order of ranges
+     */
+    <R> List<R> runIndexedRanges(final int threadsCount, final int size, final IndexedRangeFunction<R> func) throws InterruptedException {
+        checkThreads(threadsCount);
+        if (size < sequentialThreshold) {
+            return Collections.singletonList(func.apply(0, 0, size));
+        }
+        return runRanges(threadsCount, split(chunksCount(threadsCount, size), size), func);
+    }
+
+    /**
+     * Splits values into contiguous ranges of nearly equal total weight, several per thread,
+     * and applies function to them by at most {@code threadsCount} parallel threads.
+     *
+     * @return results for ranges in order of ranges
+     */
+    <T, R> List<R> runRanges(
+            final int threadsCount,
+            final List<? extends T> values,
+            final ToLongFunction<? super T> weight,
+            final RangeFunction<R> func
+    ) throws InterruptedException {
+        checkThreads(threadsCount);
+        if (values.size() < sequentialThreshold) {
+            return Collections.singletonList(func.apply(0, values.size()));
+        }
+        return runRanges(threadsCount, split(chunksCount(threadsCount, values.size()), values, weight),
+                (index, from, to) -> func.apply(from, to));
+    }
+
+    private <R> List<R> runRanges(final int threadsCount, final List<int[]> ranges, final IndexedRangeFunction<R> func) throws InterruptedException {
+        final int workers = Math.min(threadsCount, ranges.size());
+        if (mapper != null) {
+            return processOnMapper(workers, ranges, func);
+        } else if (executor != null) {
+            return processOnExecutor(workers, ranges, func);
+        } else {
+            return processParallelFunc(workers, ranges, func);
+        }
+    }
+
+    private static void checkThreads(final int threadsCount) {
         if (threadsCount <= 0) {
             throw new IllegalArgumentException("Threads count must be positive");
         }
-        threadsCount = Math.min(threadsCount, arr.size());
+    }
 
-        final List<List<T>> chunks = split(threadsCount, arr);
-        final List<R> res = mapper == null ? processParallelFunc(chunks, func) : mapper.map(lst -> func.apply(lst.stream()), chunks);
+    private <T, R> R getParallelFunc(final int threadsCount, final List<T> arr,
+                                     final Function<? super Stream<T>, R> func,
+                                     final Function<? super Stream<R>, R> merger) throws InterruptedException {
+        final List<R> res = runRanges(threadsCount, arr.size(), (from, to) -> func.apply(arr.subList(from, to).stream()));
         return merger.apply(res.stream());
     }
 
@@ -118,6 +447,7 @@ public class IterativeParallelism implements AdvancedIP {
 
     /**
      * Check that all elements of given {@link List} satisfy given {@link Predicate}. Calculations are spread on several parallel threads.
+     * All threads stop as soon as one of them finds counterexample.
      *
      * @param threads number or concurrent threads.
      * @param values is {@link List} values to test.
@@ -128,11 +458,12 @@ public class IterativeParallelism implements AdvancedIP {
      */
     @Override
     public <T> boolean all(final int threads, final List<? extends T> values, final Predicate<? super T> predicate) throws InterruptedException {
-        return getParallelFunc(threads, values, st -> st.allMatch(predicate), st -> st.allMatch(Boolean::booleanValue));
+        return findAnyIndex(threads, values, predicate.negate()) < 0;
     }
 
     /**
      * Check that any element of given {@link List} satisfies given {@link Predicate}. Calculations are spread on several parallel threads.
+     * All threads stop as soon as one of them finds matching element.
      *
      * @param threads number or concurrent threads.
      * @param values is {@link List} values to test.
@@ -143,7 +474,92 @@ public class IterativeParallelism implements AdvancedIP {
      */
     @Override
     public <T> boolean any(final int threads, final List<? extends T> values, final Predicate<? super T> predicate) throws InterruptedException {
-        return !all(threads, values, x -> !predicate.test(x));
+        return findAnyIndex(threads, values, predicate) >= 0;
+    }
+
+    /**
+     * Returns index of some element satisfying predicate or {@code -1}. Every thread checks shared flag before
+     * testing next element and stops when any other thread has found one.
+     */
+    private <T> int findAnyIndex(final int threads, final List<? extends T> values, final Predicate<? super T> predicate) throws InterruptedException {
+        final AtomicInteger found = new AtomicInteger(-1);
+        runRanges(threads, values.size(), (from, to) -> {
+            int i = from;
+            for (final Iterator<? extends T> it = values.subList(from, to).iterator(); it.hasNext() && found.get() < 0; i++) {
+                if (predicate.test(it.next())) {
+                    found.compareAndSet(-1, i);
+                }
+            }
+            return null;
+        });
+        return found.get();
+    }
+
+    /**
+     * Find any element of given {@link List} satisfying given {@link Predicate}. Calculations are spread on several parallel threads,
+     * all of them stop as soon as one of them finds matching element.
+     *
+     * @param threads number or concurrent threads.
+     * @param values is {@link List} values to test.
+     * @param predicate test {@link Predicate}.
+     * @param <T> is type of given values
+     * @return some element satisfying {@link Predicate} or empty {@link Optional} if there is none
+     * @throws InterruptedException if some thread was interrupted
+     * @throws NullPointerException if found element is {@code null}
+     */
+    public <T> Optional<T> findAny(final int threads, final List<? extends T> values, final Predicate<? super T> predicate) throws InterruptedException {
+        final int index = findAnyIndex(threads, values, predicate);
+        return index < 0 ? Optional.empty() : Optional.of(values.get(index));
+    }
+
+    /**
+     * Find the first element of given {@link List} satisfying given {@link Predicate}. Calculations are spread on several parallel threads,
+     * every thread stops as soon as some element before its current one is found.
+     *
+     * @param threads number or concurrent threads.
+     * @param values is {@link List} values to test.
+     * @param predicate test {@link Predicate}.
+     * @param <T> is type of given values
+     * @return the first element satisfying {@link Predicate} or empty {@link Optional} if there is none
+     * @throws InterruptedException if some thread was interrupted
+     * @throws NullPointerException if found element is {@code null}
+     */
+    public <T> Optional<T> findFirst(final int threads, final List<? extends T> values, final Predicate<? super T> predicate) throws InterruptedException {
+        final AtomicInteger first = new AtomicInteger(Integer.MAX_VALUE);
+        runRanges(threads, values.size(), (from, to) -> {
+            int i = from;
+            for (final Iterator<? extends T> it = values.subList(from, to).iterator(); it.hasNext() && i < first.get(); i++) {
+                if (predicate.test(it.next())) {
+                    first.accumulateAndGet(i, Math::min);
+                    break;
+                }
+            }
+            return null;
+        });
+        final int index = first.get();
+        return index == Integer.MAX_VALUE ? Optional.empty() : Optional.of(values.get(index));
+    }
+
+    /**
+     * Count elements of given {@link List} satisfying given {@link Predicate}. Calculations are spread on several parallel threads.
+     *
+     * @param threads number or concurrent threads.
+     * @param values is {@link List} values to test.
+     * @param predicate test {@link Predicate}.
+     * @param <T> is type of given values
+     * @return number of elements satisfying {@link Predicate}
+     * @throws InterruptedException if some thread was interrupted
+     */
+    public <T> int count(final int threads, final List<? extends T> values, final Predicate<? super T> predicate) throws InterruptedException {
+        return runRanges(threads, values.size(), (from, to) -> {
+            int res = 0;
+            for (final T value : values.subList(from, to)) {
+                if (predicate.test(value)) {
+                    res++;
+                }
+            }
+            return res;
+        }).stream().mapToInt(Integer::intValue).sum();
     }
 
     /**
@@ -161,19 +577,45 @@ public class IterativeParallelism implements AdvancedIP {
                 st -> st.collect(Collectors.joining()));
     }
 
-    private static <T> List<T> collectToList(final Stream<? extends List<T>> st) {
-        return st.flatMap(List::stream).collect(Collectors.toList());
+    /**
+     * Matches of predicate in single chunk: bits are indexed from the start of chunk.
+     */
+    static class ChunkMatches {
+        final BitSet matches;
+        final int count;
+        int offset;
+
+        ChunkMatches(final BitSet matches) {
+            this.matches = matches;
+            count = matches.cardinality();
+        }
     }
 
-    private <T, U> List<U> applyStreamFunc(final int threads, final List<? extends T> values,
-                                           final Function<Stream<? extends T>, Stream<? extends U>> f) throws InterruptedException {
-        return getParallelFunc(threads, values,
-                st -> f.apply(st).collect(Collectors.toList()),
-                IterativeParallelism::collectToList);
+    /**
+     * Sets offsets of matches of chunks in compacted result.
+     *
+     * @return size of compacted result
+     */
+    static int layout(final List<ChunkMatches> chunks) {
+        int size = 0;
+        for (final ChunkMatches chunk : chunks) {
+            chunk.offset = size;
+            size += chunk.count;
+        }
+        return size;
+    }
+
+    /**
+     * Wraps filled result array into mutable list, like lists collected from sequential streams.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> toList(final Object[] res) {
+        return new ArrayList<>((List<T>) Arrays.asList(res));
     }
 
     /**
-     * Filter elements of given {@link List} via given {@link Predicate}. Calculations are spread on several parallel threads.
+     * Filter elements of given {@link List} via given {@link Predicate}. Calculations are spread on several parallel threads:
+     * the first pass marks matching elements of every chunk, the second one copies them to exactly sized result.
      *
      * @param threads number of concurrent threads.
      * @param values is {@link List} values to filter.
@@ -184,11 +626,35 @@ public class IterativeParallelism implements AdvancedIP {
      */
     @Override
     public <T> List<T> filter(final int threads, final List<? extends T> values, final Predicate<? super T> predicate) throws InterruptedException {
-        return applyStreamFunc(threads, values, st -> st.filter(predicate));
+        final List<ChunkMatches> chunks = runRanges(threads, values.size(), (from, to) -> {
+            final BitSet matches = new BitSet(to - from);
+            int i = 0;
+            for (final T value : values.subList(from, to)) {
+                if (predicate.test(value)) {
+                    matches.set(i);
+                }
+                i++;
+            }
+            return new ChunkMatches(matches);
+        });
+        final Object[] res = new Object[layout(chunks)];
+        runIndexedRanges(threads, values.size(), (index, from, to) -> {
+            final ChunkMatches chunk = chunks.get(index);
+            int pos = chunk.offset;
+            int i = 0;
+            for (final T value : values.subList(from, to)) {
+                if (chunk.matches.get(i++)) {
+                    res[pos++] = value;
+                }
+            }
+            return null;
+        });
+        return toList(res);
     }
 
     /**
-     * Map elements of given {@link List} via given {@link Function}. Calculations are spread on several parallel threads.
+     * Map elements of given {@link List} via given {@link Function}. Calculations are spread on several parallel threads,
+     * which write results straight to preallocated array.
      *
      * @param threads number of concurrent threads.
      * @param values  is {@link List} values to map.
@@ -200,7 +666,46 @@ public class IterativeParallelism implements AdvancedIP {
      */
     @Override
     public <T, U> List<U> map(final int threads, final List<? extends T> values, final Function<? super T, ? extends U> f) throws InterruptedException {
-        return applyStreamFunc(threads, values, st -> st.map(f));
+        final Object[] res = new Object[values.size()];
+        runRanges(threads, values.size(), (from, to) -> {
+            int i = from;
+            for (final T value : values.subList(from, to)) {
+                res[i++] = f.apply(value);
+            }
+            return null;
+        });
+        return toList(res);
+    }
+
+    /**
+     * Maps values via given {@link Function} splitting them into contiguous chunks of nearly equal total weight,
+     * so values with skewed cost are spread evenly. Weights are computed sequentially before mapping.
+     *
+     * @param threads number of concurrent threads.
+     * @param values  is {@link List} values to map.
+     * @param f is mapper {@link Function}.
+     * @param weight is non-negative estimated cost of applying {@code f} to value.
+     * @param <T> is type of given values
+     * @param <U> is type of matched values
+     * @return {@link List} of mapped elements
+     * @throws InterruptedException if some thread was interrupted
+     * @throws IllegalArgumentException if some weight is negative
+     */
+    public <T, U> List<U> map(
+            final int threads,
+            final List<? extends T> values,
+            final Function<? super T, ? extends U> f,
+            final ToLongFunction<? super T> weight
+    ) throws InterruptedException {
+        final Object[] res = new Object[values.size()];
+        runRanges(threads, values, weight, (from, to) -> {
+            int i = from;
+            for (final T value : values.subList(from, to)) {
+                res[i++] = f.apply(value);
+            }
+            return null;
+        });
+        return toList(res);
     }
 
     private static <T> Function<Stream<T>, T> getReducer(final Monoid<T> monoid) {
@@ -243,4 +748,124 @@ public class IterativeParallelism implements AdvancedIP {
         return getParallelFunc(threads, values,
                 st -> red.apply(st.map(lift)), red);
     }
+
+    /**
+     * Map-Reduce elements of given {@link List} splitting them into contiguous chunks of nearly equal total weight.
+     *
+     * @param threads number of concurrent threads.
+     * @param values is {@link List} values to map-reduce.
+     * @param lift is mapping {@link Function}.
+     * @param monoid is {@link info.kgeorgiy.java.advanced.concurrent.AdvancedIP.Monoid} monoid to use.
+     * @param weight is non-negative estimated cost of applying {@code lift} to value.
+     * @param <T> is type of given values
+     * @param <R> is type of matched values
+     * @return map-reduced value
+     * @throws InterruptedException if some thread was interrupted
+     * @throws IllegalArgumentException if some weight is negative
+     * @see #map(int, List, Function, ToLongFunction)
+     */
+    public <T, R> R mapReduce(
+            final int threads,
+            final List<T> values,
+            final Function<T, R> lift,
+            final Monoid<R> monoid,
+            final ToLongFunction<? super T> weight
+    ) throws InterruptedException {
+        final Function<Stream<R>, R> red = getReducer(monoid);
+        final List<R> res = runRanges(threads, values, weight, (from, to) -> red.apply(values.subList(from, to).stream().map(lift)));
+        return red.apply(res.stream());
+    }
+
+    /**
+     * Inclusive prefix scan of given {@link List} via given monoid: {@code i}-th element of result is reduction of
+     * values from {@code 0} to {@code i} inclusive. Calculations are spread on several parallel threads.
+     *
+     * @param threads number of concurrent threads.
+     * @param values is {@link List} values to scan.
+     * @param monoid is {@link info.kgeorgiy.java.advanced.concurrent.AdvancedIP.Monoid} monoid to use.
+     * @param <T> is type of given values
+     * @return {@link List} of prefix reductions
+     * @throws InterruptedException if some thread was interrupted
+     */
+    public <T> List<T> scan(final int threads, final List<T> values, final Monoid<T> monoid) throws InterruptedException {
+        return scan(threads, values, monoid, true);
+    }
+
+    /**
+     * Prefix scan of given {@link List} via given monoid. Calculations are spread on several parallel threads:
+     * the first pass reduces every chunk, the second one scans every chunk starting from reduction of previous ones.
+     *
+     * @param threads number of concurrent threads.
+     * @param values is {@link List} values to scan.
+     * @param monoid is {@link info.kgeorgiy.java.advanced.concurrent.AdvancedIP.Monoid} monoid to use.
+     * @param inclusive whether {@code i}-th element of result includes {@code i}-th value
+     * @param <T> is type of given values
+     * @return {@link List} of prefix reductions
+     * @throws InterruptedException if some thread was interrupted
+     */
+    public <T> List<T> scan(final int threads, final List<T> values, final Monoid<T> monoid, final boolean inclusive) throws InterruptedException {
+        final BinaryOperator<T> op = monoid.getOperator();
+        final List<T> totals = runRanges(threads, values.size(), (from, to) -> {
+            T acc = monoid.getIdentity();
+            for (final T value : values.subList(from, to)) {
+                acc = op.apply(acc, value);
+            }
+            return acc;
+        });
+        final Object[] offsets = new Object[totals.size()];
+        T acc = monoid.getIdentity();
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = acc;
+            acc = op.apply(acc, totals.get(i));
+        }
+
+        final Object[] res = new Object[values.size()];
+        runIndexedRanges(threads, values.size(), (index, from, to) -> {
+            @SuppressWarnings("unchecked") T prefix = (T) offsets[index];
+            int i = from;
+            for (final T value : values.subList(from, to)) {
+                if (inclusive) {
+                    prefix = op.apply(prefix, value);
+                    res[i++] = prefix;
+                } else {
+                    res[i++] = prefix;
+                    prefix = op.apply(prefix, value);
+                }
+            }
+            return null;
+        });
+        return toList(res);
+    }
+
+    /**
+     * Reduce values of given {@link List} of every segment separately via given monoid. Calculations are spread on several
+     * parallel threads, every thread reduces its chunk and chunk results are merged in order.
+     *
+     * @param threads number of concurrent threads.
+     * @param values is {@link List} values to reduce.
+     * @param segment is {@link Function} returning segment of value.
+     * @param monoid is {@link info.kgeorgiy.java.advanced.concurrent.AdvancedIP.Monoid} monoid to use.
+     * @param <T> is type of given values
+     * @param <K> is type of segments
+     * @return {@link Map} from segment to reduction of its values, in order of first occurrence of segments
+     * @throws InterruptedException if some thread was interrupted
+     */
+    public <T, K> Map<K, T> segmentedReduce(final int threads, final List<T> values,
+                                            final Function<? super T, ? extends K> segment,
+                                            final Monoid<T> monoid) throws InterruptedException {
+        final BinaryOperator<T> op = monoid.getOperator();
+        final List<Map<K, T>> chunks = runRanges(threads, values.size(), (from, to) -> {
+            final Map<K, T> res = new LinkedHashMap<>();
+            for (final T value : values.subList(from, to)) {
+                final K key = segment.apply(value);
+                res.put(key, op.apply(res.containsKey(key) ? res.get(key) : monoid.getIdentity(), value));
+            }
+            return res;
+        });
+        final Map<K, T> res = new LinkedHashMap<>();
+        for (final Map<K, T> chunk : chunks) {
+            chunk.forEach((key, value) -> res.put(key, res.containsKey(key) ? op.apply(res.get(key), value) : value));
+        }
+        return res;
+    }
 }
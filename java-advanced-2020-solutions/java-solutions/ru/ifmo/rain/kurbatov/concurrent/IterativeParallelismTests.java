@@ -0,0 +1,194 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import info.kgeorgiy.java.advanced.concurrent.AdvancedIP;
+import info.kgeorgiy.java.advanced.mapper.ParallelMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IterativeParallelismTests {
+    private static final int[] SIZES = {0, 1, 3, 10_000};
+    private static final int[] THREADS = {1, 3, 16};
+
+    private interface Check {
+        void run(IterativeParallelism parallelism, int threads, List<Integer> values) throws InterruptedException;
+    }
+
+    private static List<Integer> range(final int size) {
+        return IntStream.range(0, size).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * Runs check on empty and small inputs, with more and less threads than values,
+     * in new threads, on {@link ParallelMapperImpl} and on executor.
+     */
+    private static void check(final Check check) throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (final ParallelMapperImpl mapper = new ParallelMapperImpl(4)) {
+            for (final IterativeParallelism parallelism : List.of(
+                    new IterativeParallelism(),
+                    new IterativeParallelism(mapper),
+                    new IterativeParallelism(executor, 0)
+            )) {
+                for (final int size : SIZES) {
+                    final List<Integer> values = range(size);
+                    Collections.shuffle(values, new Random(size));
+                    for (final int threads : THREADS) {
+                        check.run(parallelism, threads, values);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test1_mapperGetsAtMostThreadsTasks() throws InterruptedException {
+        final AtomicInteger maxTasks = new AtomicInteger();
+        try (final ParallelMapperImpl impl = new ParallelMapperImpl(8)) {
+            final ParallelMapper mapper = new ParallelMapper() {
+                @Override
+                public <T, R> List<R> map(final Function<? super T, ? extends R> f, final List<? extends T> args) throws InterruptedException {
+                    maxTasks.accumulateAndGet(args.size(), Math::max);
+                    return impl.map(f, args);
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            final IterativeParallelism parallelism = new IterativeParallelism(mapper);
+            final List<Integer> values = range(100_000);
+            for (final int threads : new int[]{1, 3, 7}) {
+                maxTasks.set(0);
+                assertEquals(values.stream().map(x -> x + 1).collect(Collectors.toList()), parallelism.map(threads, values, x -> x + 1));
+                assertEquals(99_999, parallelism.maximum(threads, values, Integer::compare));
+                assertTrue(maxTasks.get() <= threads, "mapper got " + maxTasks.get() + " tasks for " + threads + " threads");
+            }
+        }
+    }
+
+    @Test
+    public void test2_executorBusyWorkersDoNotBlockCaller() throws InterruptedException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            final IterativeParallelism parallelism = new IterativeParallelism(executor, 0);
+            final List<Integer> values = range(100_000);
+            assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+                for (final int threads : new int[]{2, 4, 8}) {
+                    assertEquals(values.stream().map(x -> x * 3).collect(Collectors.toList()), parallelism.map(threads, values, x -> x * 3));
+                }
+            });
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test3_filterAndMapMatchStreams() throws InterruptedException {
+        final Predicate<Integer> predicate = x -> x % 3 == 1;
+        check((parallelism, threads, values) -> {
+            final List<Integer> filtered = parallelism.filter(threads, values, predicate);
+            assertEquals(values.stream().filter(predicate).collect(Collectors.toList()), filtered);
+            assertEquals(List.of(), parallelism.filter(threads, values, x -> false));
+            assertEquals(values, parallelism.filter(threads, values, x -> true));
+
+            final List<String> mapped = parallelism.map(threads, values, String::valueOf);
+            assertEquals(values.stream().map(String::valueOf).collect(Collectors.toList()), mapped);
+            assertEquals(mapped, parallelism.map(threads, values, String::valueOf, x -> x % 10));
+
+            filtered.add(-1);
+            mapped.add("-1");
+            mapped.remove(0);
+        });
+    }
+
+    @Test
+    public void test4_scanAndSegmentedReduceMatchSequential() throws InterruptedException {
+        // composition of affine maps x -> a * x + b modulo P, packed as a * P + b, is associative but not commutative
+        final int p = 1009;
+        final BinaryOperator<Integer> compose = (f, g) -> (g / p * (f / p) % p) * p + (g / p * (f % p) + g % p) % p;
+        final AdvancedIP.Monoid<Integer> monoid = new AdvancedIP.Monoid<>(p, compose);
+        check((parallelism, threads, ints) -> {
+            final List<Integer> values = ints.stream().map(x -> (x % 7 + 1) * p + x % 5).collect(Collectors.toList());
+            final List<Integer> inclusive = new ArrayList<>();
+            final List<Integer> exclusive = new ArrayList<>();
+            final Map<Integer, Integer> segments = new LinkedHashMap<>();
+            Integer prefix = monoid.getIdentity();
+            for (final Integer value : values) {
+                exclusive.add(prefix);
+                prefix = compose.apply(prefix, value);
+                inclusive.add(prefix);
+                segments.merge(value % 3, value, compose);
+            }
+            final List<Integer> actual = parallelism.scan(threads, values, monoid);
+            assertEquals(inclusive, actual);
+            assertEquals(exclusive, parallelism.scan(threads, values, monoid, false));
+            actual.add(0);
+
+            final Map<Integer, Integer> reduced = parallelism.segmentedReduce(threads, values, x -> x % 3, monoid);
+            assertEquals(segments, reduced);
+            assertEquals(new ArrayList<>(segments.keySet()), new ArrayList<>(reduced.keySet()));
+        });
+    }
+
+    @Test
+    public void test5_searchesMatchStreams() throws InterruptedException {
+        check((parallelism, threads, values) -> {
+            for (final int modulo : new int[]{1, 2, 97, 20_000}) {
+                final Predicate<Integer> predicate = x -> x % modulo == modulo - 1;
+                final Optional<Integer> first = values.stream().filter(predicate).findFirst();
+                assertEquals(first, parallelism.findFirst(threads, values, predicate), "findFirst " + modulo);
+                assertEquals(values.stream().filter(predicate).count(), parallelism.count(threads, values, predicate), "count " + modulo);
+                assertEquals(first.isPresent(), parallelism.any(threads, values, predicate), "any " + modulo);
+                assertEquals(values.stream().allMatch(predicate), parallelism.all(threads, values, predicate), "all " + modulo);
+
+                final Optional<Integer> any = parallelism.findAny(threads, values, predicate);
+                assertEquals(first.isPresent(), any.isPresent(), "findAny " + modulo);
+                any.ifPresent(x -> assertTrue(predicate.test(x), "findAny " + modulo));
+            }
+        });
+    }
+
+    @Test
+    public void test6_findFirstStopsAfterMatch() throws InterruptedException {
+        final List<Integer> values = range(100_000);
+        final AtomicInteger tested = new AtomicInteger();
+        final IterativeParallelism parallelism = new IterativeParallelism();
+        assertEquals(Optional.of(10), parallelism.findFirst(1, values, x -> {
+            tested.incrementAndGet();
+            return x >= 10;
+        }));
+        assertEquals(11, tested.get());
+        assertEquals(Optional.empty(), parallelism.findFirst(4, List.<Integer>of(), x -> true));
+        assertEquals(0, parallelism.count(4, List.of(), x -> true));
+    }
+}
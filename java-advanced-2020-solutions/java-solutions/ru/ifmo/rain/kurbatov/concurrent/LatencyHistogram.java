@@ -0,0 +1,132 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative durations in nanoseconds.
+ * Every power of two is split into {@value #SUB_BUCKETS} linear buckets, so recorded values are kept
+ * with relative error below {@code 1 / }{@value #SUB_BUCKETS} in fixed memory, as HDR histograms do.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = bucket(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Makes empty histogram.
+     */
+    public LatencyHistogram() {
+    }
+
+    /**
+     * Records single value. Negative values are recorded as {@code 0}.
+     *
+     * @param nanos is value to record
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        total.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Returns summary of values recorded so far. Values recorded concurrently may be partially reflected.
+     *
+     * @return {@link Summary} of recorded values
+     */
+    public Summary summary() {
+        final long[] res = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            res[i] = counts.get(i);
+        }
+        return new Summary(res, total.sum(), max.get());
+    }
+
+    private static int bucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exp = 63 - Long.numberOfLeadingZeros(value);
+        return ((exp - SUB_BITS + 1) << SUB_BITS) + (int) ((value >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    private static long lowerBound(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exp = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS | bucket & (SUB_BUCKETS - 1)) << (exp - SUB_BITS);
+    }
+
+    /**
+     * Immutable summary of {@link LatencyHistogram}.
+     */
+    public static final class Summary {
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        private Summary(final long[] counts, final long total, final long max) {
+            this.counts = counts;
+            long count = 0;
+            for (final long c : counts) {
+                count += c;
+            }
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns mean of recorded values.
+         *
+         * @return mean in nanoseconds, {@code 0} if nothing is recorded
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns upper bound of bucket containing value of given rank.
+         *
+         * @param percentile is rank from {@code 0} to {@code 100}
+         * @return percentile in nanoseconds, {@code 0} if nothing is recorded
+         * @throws IllegalArgumentException if {@code percentile} is out of range
+         */
+        public long getPercentile(final double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be in [0, 100]");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i + 1 < counts.length ? Math.min(max, lowerBound(i + 1) - 1) : max;
+                }
+            }
+            return max;
+        }
+    }
+}
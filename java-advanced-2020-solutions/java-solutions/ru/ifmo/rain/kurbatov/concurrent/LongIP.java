@@ -0,0 +1,170 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Parallel operations over slices of {@code long} arrays without boxing:
+ * counterpart of {@link info.kgeorgiy.java.advanced.concurrent.ScalarIP}, {@link info.kgeorgiy.java.advanced.concurrent.ListIP}
+ * and {@link info.kgeorgiy.java.advanced.concurrent.AdvancedIP}.
+ * Overloads without bounds process the whole array.
+ *
+ * @see PrimitiveParallelism
+ */
+public interface LongIP {
+    /**
+     * Sums values of slice.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @return sum of values
+     * @throws InterruptedException if some thread was interrupted
+     */
+    long sum(int threads, long[] values, int from, int to) throws InterruptedException;
+
+    /**
+     * Finds maximum value of slice.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @return maximum value
+     * @throws InterruptedException if some thread was interrupted
+     * @throws IllegalArgumentException if slice is empty
+     */
+    long maximum(int threads, long[] values, int from, int to) throws InterruptedException;
+
+    /**
+     * Finds minimum value of slice.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @return minimum value
+     * @throws InterruptedException if some thread was interrupted
+     * @throws IllegalArgumentException if slice is empty
+     */
+    long minimum(int threads, long[] values, int from, int to) throws InterruptedException;
+
+    /**
+     * Checks that all values of slice satisfy predicate.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param predicate test predicate
+     * @return whether all values satisfy {@code predicate}
+     * @throws InterruptedException if some thread was interrupted
+     */
+    boolean all(int threads, long[] values, int from, int to, LongPredicate predicate) throws InterruptedException;
+
+    /**
+     * Checks that any value of slice satisfies predicate.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param predicate test predicate
+     * @return whether any value satisfies {@code predicate}
+     * @throws InterruptedException if some thread was interrupted
+     */
+    boolean any(int threads, long[] values, int from, int to, LongPredicate predicate) throws InterruptedException;
+
+    /**
+     * Filters values of slice.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param predicate filter predicate
+     * @return values satisfying {@code predicate} in original order
+     * @throws InterruptedException if some thread was interrupted
+     */
+    long[] filter(int threads, long[] values, int from, int to, LongPredicate predicate) throws InterruptedException;
+
+    /**
+     * Maps values of slice.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param f mapping function
+     * @return mapped values
+     * @throws InterruptedException if some thread was interrupted
+     */
+    long[] map(int threads, long[] values, int from, int to, LongUnaryOperator f) throws InterruptedException;
+
+    /**
+     * Reduces values of slice via associative operator.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param identity identity element of {@code operator}
+     * @param operator associative operator
+     * @return reduced value
+     * @throws InterruptedException if some thread was interrupted
+     */
+    long reduce(int threads, long[] values, int from, int to, long identity, LongBinaryOperator operator) throws InterruptedException;
+
+    /**
+     * Counts every value of range {@code [min, min + bins)} in slice; values out of range are ignored.
+     * Range does not wrap around: if {@code min + bins} overflows, it ends at {@link Long#MAX_VALUE}.
+     *
+     * @param threads number of concurrent threads
+     * @param values array of values
+     * @param from index of the first value of slice, inclusive
+     * @param to index of the last value of slice, exclusive
+     * @param min the least counted value
+     * @param bins number of counted values
+     * @return {@code i}-th element is number of occurrences of {@code min + i}
+     * @throws InterruptedException if some thread was interrupted
+     */
+    long[] histogram(int threads, long[] values, int from, int to, long min, int bins) throws InterruptedException;
+
+    default long sum(final int threads, final long[] values) throws InterruptedException {
+        return sum(threads, values, 0, values.length);
+    }
+
+    default long maximum(final int threads, final long[] values) throws InterruptedException {
+        return maximum(threads, values, 0, values.length);
+    }
+
+    default long minimum(final int threads, final long[] values) throws InterruptedException {
+        return minimum(threads, values, 0, values.length);
+    }
+
+    default boolean all(final int threads, final long[] values, final LongPredicate predicate) throws InterruptedException {
+        return all(threads, values, 0, values.length, predicate);
+    }
+
+    default boolean any(final int threads, final long[] values, final LongPredicate predicate) throws InterruptedException {
+        return any(threads, values, 0, values.length, predicate);
+    }
+
+    default long[] filter(final int threads, final long[] values, final LongPredicate predicate) throws InterruptedException {
+        return filter(threads, values, 0, values.length, predicate);
+    }
+
+    default long[] map(final int threads, final long[] values, final LongUnaryOperator f) throws InterruptedException {
+        return map(threads, values, 0, values.length, f);
+    }
+
+    default long reduce(final int threads, final long[] values, final long identity, final LongBinaryOperator operator) throws InterruptedException {
+        return reduce(threads, values, 0, values.length, identity, operator);
+    }
+
+    default long[] histogram(final int threads, final long[] values, final long min, final int bins) throws InterruptedException {
+        return histogram(threads, values, 0, values.length, min, bins);
+    }
+}
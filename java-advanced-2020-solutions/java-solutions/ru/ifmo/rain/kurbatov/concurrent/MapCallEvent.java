@@ -0,0 +1,29 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of single map call of {@link ParallelMapperImpl}, from submission to completion or cancellation.
+ * Events are made only after flight recorder is initialized.
+ */
+@Name("ru.ifmo.rain.kurbatov.MapCall")
+@Label("Parallel Map Call")
+@Category("Parallel Mapper")
+@Description("Single call of ParallelMapperImpl.map")
+class MapCallEvent extends Event {
+    @Label("Arguments")
+    int size;
+
+    @Label("Weight")
+    int weight;
+
+    @Label("Failed Elements")
+    int failed;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,47 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Handle of single call of {@link ParallelMapperImpl} which is being computed.
+ * Cancelled call drops its tasks which are not started yet, running tasks stop before their next argument.
+ *
+ * @param <R> type of results
+ * @see ParallelMapperImpl#submit
+ */
+public interface MapHandle<R> {
+    /**
+     * Waits until all results are computed, call is cancelled or its deadline is exceeded.
+     * If deadline is exceeded and call was submitted with {@link MapOptions#withPartialResults(boolean)},
+     * results of arguments which were not mapped in time are {@code null}.
+     * Call is cancelled if current thread is interrupted while waiting.
+     *
+     * @return {@link List} of results
+     * @throws InterruptedException if current thread was interrupted while waiting
+     * @throws CancellationException if call was cancelled or its deadline is exceeded without partial results
+     * @throws RuntimeException if mapping function threw it, other exceptions are suppressed by it
+     */
+    List<R> get() throws InterruptedException;
+
+    /**
+     * Cancels call if it is not finished yet.
+     *
+     * @return {@code true} if call was cancelled by this invocation
+     */
+    boolean cancel();
+
+    /**
+     * Checks if call is finished: all results are computed or call is cancelled.
+     *
+     * @return {@code true} if call is finished
+     */
+    boolean isDone();
+
+    /**
+     * Checks if call was cancelled explicitly, on interrupt or by deadline.
+     *
+     * @return {@code true} if call was cancelled
+     */
+    boolean isCancelled();
+}
@@ -0,0 +1,136 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable options of single call of {@link ParallelMapperImpl}.
+ * Options are made from {@link #defaults()} by {@code with} methods, e.g.
+ * {@code MapOptions.defaults().withWeight(4).withMaxConcurrency(2)}.
+ */
+public final class MapOptions {
+    private static final MapOptions DEFAULTS = new MapOptions(1, Integer.MAX_VALUE, 0, Long.MAX_VALUE, false);
+
+    private final int weight;
+    private final int maxConcurrency;
+    private final int chunkSize;
+    private final long timeoutNanos;
+    private final boolean partialResults;
+
+    private MapOptions(
+            final int weight,
+            final int maxConcurrency,
+            final int chunkSize,
+            final long timeoutNanos,
+            final boolean partialResults
+    ) {
+        this.weight = weight;
+        this.maxConcurrency = maxConcurrency;
+        this.chunkSize = chunkSize;
+        this.timeoutNanos = timeoutNanos;
+        this.partialResults = partialResults;
+    }
+
+    /**
+     * Returns options of weight {@code 1} without concurrency limit and timeout and with automatic chunk size.
+     *
+     * @return default options
+     */
+    public static MapOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns options with given weight. While several calls have pending tasks,
+     * workers take tasks of every call in proportion to its weight.
+     *
+     * @param weight is positive weight of call
+     * @return new options
+     * @throws IllegalArgumentException if {@code weight} is not positive
+     */
+    public MapOptions withWeight(final int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight must be positive");
+        }
+        return new MapOptions(weight, maxConcurrency, chunkSize, timeoutNanos, partialResults);
+    }
+
+    /**
+     * Returns options with given limit of number of workers running tasks of call at the same time.
+     *
+     * @param maxConcurrency is positive limit of workers
+     * @return new options
+     * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+     */
+    public MapOptions withMaxConcurrency(final int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        return new MapOptions(weight, maxConcurrency, chunkSize, timeoutNanos, partialResults);
+    }
+
+    /**
+     * Returns options with given number of arguments processed by one task.
+     *
+     * @param chunkSize is size of chunk, {@code 0} to choose it automatically
+     * @return new options
+     * @throws IllegalArgumentException if {@code chunkSize} is negative
+     */
+    public MapOptions withChunkSize(final int chunkSize) {
+        if (chunkSize < 0) {
+            throw new IllegalArgumentException("Chunk size must be non-negative");
+        }
+        return new MapOptions(weight, maxConcurrency, chunkSize, timeoutNanos, partialResults);
+    }
+
+    /**
+     * Returns options with given timeout counted from submission of call.
+     * When it is exceeded, call is cancelled.
+     *
+     * @param timeout is non-negative timeout
+     * @param unit is {@link TimeUnit} of {@code timeout}
+     * @return new options
+     * @throws IllegalArgumentException if {@code timeout} is negative
+     */
+    public MapOptions withTimeout(final long timeout, final TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout must be non-negative");
+        }
+        return new MapOptions(weight, maxConcurrency, chunkSize, unit.toNanos(timeout), partialResults);
+    }
+
+    /**
+     * Returns options telling whether results computed before timeout are returned instead of
+     * {@link java.util.concurrent.CancellationException}.
+     *
+     * @param partialResults is {@code true} to return partial results
+     * @return new options
+     */
+    public MapOptions withPartialResults(final boolean partialResults) {
+        return new MapOptions(weight, maxConcurrency, chunkSize, timeoutNanos, partialResults);
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns timeout in nanoseconds, {@link Long#MAX_VALUE} if there is no timeout.
+     *
+     * @return timeout in nanoseconds
+     */
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    public boolean isPartialResults() {
+        return partialResults;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+/**
+ * Management interface of {@link ParallelMapperImpl}. Every attribute is read from fresh {@link MapperSnapshot}.
+ *
+ * @see ParallelMapperImpl#registerMBean(javax.management.ObjectName)
+ */
+public interface MapperMXBean {
+    int getWorkers();
+
+    int getActiveCalls();
+
+    long getQueuedTasks();
+
+    long getExecutedTasks();
+
+    long getFailedElements();
+
+    long getCompletedCalls();
+
+    long getCancelledCalls();
+
+    double getUtilization();
+
+    double getTaskWaitMeanNanos();
+
+    long getTaskWaitP99Nanos();
+
+    double getTaskRunMeanNanos();
+
+    long getTaskRunP99Nanos();
+
+    long getCallP50Nanos();
+
+    long getCallP99Nanos();
+}
@@ -0,0 +1,55 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of {@link ParallelMapperImpl}. Hot path only adds to striped counters and lock-free histograms,
+ * busy time of worker is written by that worker only.
+ */
+class MapperMetrics {
+    private final long created = System.nanoTime();
+    private final AtomicLongArray busy;
+    final LongAdder queued = new LongAdder();
+    final LongAdder executed = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder completed = new LongAdder();
+    final LongAdder cancelled = new LongAdder();
+    final LatencyHistogram taskWait = new LatencyHistogram();
+    final LatencyHistogram taskRun = new LatencyHistogram();
+    final LatencyHistogram callTime = new LatencyHistogram();
+
+    MapperMetrics(final int workers) {
+        busy = new AtomicLongArray(workers);
+    }
+
+    /**
+     * Records task taken by worker at {@code start} and finished at {@code end}.
+     */
+    void task(final int worker, final long queuedAt, final long start, final long end) {
+        taskWait.record(start - queuedAt);
+        taskRun.record(end - start);
+        busy.lazySet(worker, busy.get(worker) + end - start);
+        executed.increment();
+    }
+
+    MapperSnapshot snapshot(final int activeCalls) {
+        final long[] busyNanos = new long[busy.length()];
+        for (int i = 0; i < busyNanos.length; i++) {
+            busyNanos[i] = busy.get(i);
+        }
+        return new MapperSnapshot(
+                System.nanoTime() - created,
+                busyNanos,
+                activeCalls,
+                queued.sum(),
+                executed.sum(),
+                failed.sum(),
+                completed.sum(),
+                cancelled.sum(),
+                taskWait.summary(),
+                taskRun.summary(),
+                callTime.summary()
+        );
+    }
+}
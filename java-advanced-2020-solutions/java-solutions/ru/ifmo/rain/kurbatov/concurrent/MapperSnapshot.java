@@ -0,0 +1,144 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+/**
+ * Immutable snapshot of metrics of {@link ParallelMapperImpl}.
+ * Counters are read one by one without stopping workers, so they may be slightly inconsistent with each other.
+ *
+ * @see ParallelMapperImpl#snapshot()
+ */
+public final class MapperSnapshot {
+    private final long uptimeNanos;
+    private final long[] busyNanos;
+    private final int activeCalls;
+    private final long queuedTasks;
+    private final long executedTasks;
+    private final long failedElements;
+    private final long completedCalls;
+    private final long cancelledCalls;
+    private final LatencyHistogram.Summary taskWait;
+    private final LatencyHistogram.Summary taskRun;
+    private final LatencyHistogram.Summary callTime;
+
+    MapperSnapshot(
+            final long uptimeNanos,
+            final long[] busyNanos,
+            final int activeCalls,
+            final long queuedTasks,
+            final long executedTasks,
+            final long failedElements,
+            final long completedCalls,
+            final long cancelledCalls,
+            final LatencyHistogram.Summary taskWait,
+            final LatencyHistogram.Summary taskRun,
+            final LatencyHistogram.Summary callTime
+    ) {
+        this.uptimeNanos = uptimeNanos;
+        this.busyNanos = busyNanos;
+        this.activeCalls = activeCalls;
+        this.queuedTasks = queuedTasks;
+        this.executedTasks = executedTasks;
+        this.failedElements = failedElements;
+        this.completedCalls = completedCalls;
+        this.cancelledCalls = cancelledCalls;
+        this.taskWait = taskWait;
+        this.taskRun = taskRun;
+        this.callTime = callTime;
+    }
+
+    public long getUptimeNanos() {
+        return uptimeNanos;
+    }
+
+    /**
+     * Returns time spent by every worker running tasks since mapper was created.
+     *
+     * @return busy time of workers in nanoseconds
+     */
+    public long[] getBusyNanos() {
+        return busyNanos.clone();
+    }
+
+    /**
+     * Returns share of time workers spent running tasks since mapper was created.
+     *
+     * @return utilization from {@code 0} to {@code 1}
+     */
+    public double getUtilization() {
+        long busy = 0;
+        for (final long nanos : busyNanos) {
+            busy += nanos;
+        }
+        return uptimeNanos == 0 ? 0 : Math.min(1, (double) busy / uptimeNanos / busyNanos.length);
+    }
+
+    /**
+     * Returns number of calls which are registered: running map calls and open streaming calls.
+     *
+     * @return number of active calls
+     */
+    public int getActiveCalls() {
+        return activeCalls;
+    }
+
+    /**
+     * Returns number of tasks waiting in lanes of all calls.
+     *
+     * @return queue depth
+     */
+    public long getQueuedTasks() {
+        return queuedTasks;
+    }
+
+    public long getExecutedTasks() {
+        return executedTasks;
+    }
+
+    /**
+     * Returns number of arguments on which mapped function threw exception.
+     *
+     * @return number of failed elements
+     */
+    public long getFailedElements() {
+        return failedElements;
+    }
+
+    public long getCompletedCalls() {
+        return completedCalls;
+    }
+
+    /**
+     * Returns number of map calls cancelled explicitly, on interrupt or by deadline.
+     *
+     * @return number of cancelled calls
+     */
+    public long getCancelledCalls() {
+        return cancelledCalls;
+    }
+
+    /**
+     * Returns time tasks spent in lanes before some worker took them.
+     *
+     * @return {@link LatencyHistogram.Summary} of wait time
+     */
+    public LatencyHistogram.Summary getTaskWait() {
+        return taskWait;
+    }
+
+    /**
+     * Returns time of running single task.
+     *
+     * @return {@link LatencyHistogram.Summary} of run time
+     */
+    public LatencyHistogram.Summary getTaskRun() {
+        return taskRun;
+    }
+
+    /**
+     * Returns time from submission of map call to its completion or cancellation.
+     *
+     * @return {@link LatencyHistogram.Summary} of call time
+     */
+    public LatencyHistogram.Summary getCallTime() {
+        return callTime;
+    }
+}
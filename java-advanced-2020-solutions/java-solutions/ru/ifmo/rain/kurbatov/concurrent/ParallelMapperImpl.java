@@ -2,18 +2,52 @@ package ru.ifmo.rain.kurbatov.concurrent;
 
 import info.kgeorgiy.java.advanced.mapper.ParallelMapper;
 
+import jdk.jfr.FlightRecorder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
- * Implementation of {@link ParallelMapper}
+ * Implementation of {@link ParallelMapper}.
+ * Every call has its own lane: deque of index ranges per worker and one more for ranges submitted by caller.
+ * Worker splits taken range in halves, keeps working on the lower one and pushes the upper one to the head of its own deque,
+ * so it does not contend with others. Worker takes the most recent range from the head of its own deque,
+ * and when it is empty steals from the tails of other deques of the lane, where the largest pending ranges are.
+ * Workers choose lanes by weighted round-robin after every chunk, so small calls are not stuck behind huge ones.
+ * Results are written straight to preallocated array, completion is counted per range without locks.
  */
 public class ParallelMapperImpl implements ParallelMapper {
+    private static final int RANGES_PER_WORKER = 8;
+    private static final int PROBE_SIZE = 16;
+    private static final long TARGET_RANGE_NANOS = 50_000;
 
-    private final Queue<Runnable> tasks;
+    private final List<Worker> workers;
     private final List<Thread> threads;
-    private final Set<ResultCollector<?>> collectors;
-    private boolean closed;
+    private volatile Call[] lanes = new Call[0];
+    private final AtomicLong turn = new AtomicLong();
+    private final Lock idleLock = new ReentrantLock();
+    private final Condition hasTasks = idleLock.newCondition();
+    private final AtomicInteger idle = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final MapperMetrics metrics;
+    private final List<ObjectName> mbeans = new ArrayList<>();
+    private volatile boolean closed;
 
     /**
      * Constructor makes indicated number of {@link Thread} and start them.
@@ -21,103 +55,546 @@ public class ParallelMapperImpl implements ParallelMapper {
      * @param threadsCount is number of {@link Thread} which are using for calculations
      */
     public ParallelMapperImpl(final int threadsCount) {
-        if (threadsCount <= 0) {
+        this(Thread::new, threadsCount);
+    }
+
+    /**
+     * Constructor makes indicated number of workers via given {@link ThreadFactory} and start them.
+     * Number of workers limits number of concurrently running tasks, so with factory of virtual threads
+     * it may be much greater than number of processors when mapped functions mostly block.
+     *
+     * @param threadFactory is factory of threads which are running workers
+     * @param concurrency is number of workers
+     */
+    public ParallelMapperImpl(final ThreadFactory threadFactory, final int concurrency) {
+        if (concurrency <= 0) {
             throw new IllegalArgumentException("Threads count must be positive");
         }
-        collectors = new HashSet<>();
-        tasks = new ArrayDeque<>();
+        workers = new ArrayList<>();
         threads = new ArrayList<>();
+        metrics = new MapperMetrics(concurrency);
         closed = false;
-        for (int i = 0; i < threadsCount; i++) {
-            final Thread thread = new Thread(() -> {
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(new Worker(i));
+        }
+        for (final Worker worker : workers) {
+            final Thread thread = threadFactory.newThread(worker);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final int index;
+        private Call current;
+
+        Worker(final int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.interrupted() && !closed) {
+                    final Task task = takeTask();
+                    final long start = System.nanoTime();
+                    try {
+                        task.run(index);
+                    } finally {
+                        current.release();
+                        metrics.task(index, task.queuedAt, start, System.nanoTime());
+                    }
+                }
+            } catch (final InterruptedException ignored) {
+                // pass
+            } finally {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Takes task of the next lane in weighted round-robin order which has tasks and is under its concurrency limit.
+         */
+        private Task schedule() {
+            final Call[] lanes = ParallelMapperImpl.this.lanes;
+            if (lanes.length == 0) {
+                return null;
+            }
+            long totalWeight = 0;
+            for (final Call call : lanes) {
+                totalWeight += call.weight;
+            }
+            long pos = Math.floorMod(turn.getAndIncrement(), totalWeight);
+            int start = 0;
+            while (pos >= lanes[start].weight) {
+                pos -= lanes[start].weight;
+                start++;
+            }
+            for (int i = 0; i < lanes.length; i++) {
+                final Call call = lanes[(start + i) % lanes.length];
+                final Task task = call.take(index);
+                if (task != null) {
+                    current = call;
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        private Task takeTask() throws InterruptedException {
+            while (!closed) {
+                final long version = submitted.get();
+                final Task task = schedule();
+                if (task != null) {
+                    return task;
+                }
+                idleLock.lock();
+                idle.incrementAndGet();
                 try {
-                    while (!Thread.interrupted()) {
-                        pollTask().run();
+                    while (submitted.get() == version && !closed) {
+                        hasTasks.await();
                     }
-                } catch (final InterruptedException ignored) {
-                    // pass
                 } finally {
-                    Thread.currentThread().interrupt();
+                    idle.decrementAndGet();
+                    idleLock.unlock();
                 }
-            });
-            threads.add(thread);
-            thread.start();
+            }
+            throw new InterruptedException();
         }
     }
 
-    private Runnable pollTask() throws InterruptedException {
-        synchronized (tasks) {
-            while (tasks.isEmpty()) {
-                tasks.wait();
+    private void signal() {
+        submitted.incrementAndGet();
+        if (idle.get() > 0) {
+            idleLock.lock();
+            try {
+                hasTasks.signal();
+            } finally {
+                idleLock.unlock();
             }
-            return tasks.poll();
         }
     }
 
-    private void addTask(final Runnable task) {
-        synchronized (tasks) {
-            tasks.add(task);
-            tasks.notify();
+    /**
+     * State of single call of mapper: its lane of tasks and everything which has to be finished when mapper is closed.
+     * Lane consists of deque of every worker and inbox deque of tasks submitted by caller.
+     * Tasks of call are dropped as soon as it is unregistered.
+     */
+    private abstract class Call {
+        final List<Deque<Task>> lane = new ArrayList<>();
+        final Deque<Task> inbox;
+        final AtomicInteger running = new AtomicInteger();
+        final int weight;
+        private final int maxConcurrency;
+        volatile boolean needFinish;
+        volatile Thread waiter;
+        private volatile boolean dropped;
+
+        Call(final MapOptions options) {
+            weight = options.getWeight();
+            maxConcurrency = options.getMaxConcurrency();
+            for (int i = 0; i <= workers.size(); i++) {
+                lane.add(new ConcurrentLinkedDeque<>());
+            }
+            inbox = lane.get(workers.size());
         }
-    }
 
-    private class ResultCollector<R> {
-        private final List<R> res;
-        private int done;
-        private RuntimeException exception;
-        private boolean needFinish;
+        void register() {
+            synchronized (ParallelMapperImpl.this) {
+                if (closed) {
+                    throw new RuntimeException("Mapper is closed");
+                }
+                final Call[] res = Arrays.copyOf(lanes, lanes.length + 1);
+                res[lanes.length] = this;
+                lanes = res;
+            }
+        }
 
-        ResultCollector(final int size) {
-            res = new ArrayList<>(Collections.nCopies(size, null));
+        void unregister() {
             synchronized (ParallelMapperImpl.this) {
-                collectors.add(ResultCollector.this);
+                lanes = Arrays.stream(lanes).filter(call -> call != this).toArray(Call[]::new);
             }
         }
 
-        synchronized void addException(final RuntimeException e) {
-            if (needFinish) {
-                return;
+        /**
+         * Unregisters call dropping tasks which are not taken yet.
+         */
+        void drop() {
+            dropped = true;
+            unregister();
+            for (final Deque<Task> deque : lane) {
+                while (deque.pollFirst() != null) {
+                    metrics.queued.decrement();
+                }
+            }
+        }
+
+        /**
+         * Takes back task added concurrently with {@link #drop()}, which might have drained deque before it was added.
+         * Returns {@code false} if call is dropped.
+         */
+        private boolean checkNotDropped(final Deque<Task> deque, final Task task) {
+            if (!dropped) {
+                return true;
+            }
+            if (deque.remove(task)) {
+                metrics.queued.decrement();
+            }
+            return false;
+        }
+
+        /**
+         * Adds task to the tail of inbox, so it is taken after all tasks submitted before.
+         */
+        void submit(final Task task) {
+            task.queuedAt = System.nanoTime();
+            metrics.queued.increment();
+            inbox.addLast(task);
+            if (checkNotDropped(inbox, task)) {
+                signal();
             }
+        }
+
+        /**
+         * Adds task to the head of deque of given worker, so this worker takes it before other tasks.
+         */
+        void push(final int worker, final Task task) {
+            task.queuedAt = System.nanoTime();
+            metrics.queued.increment();
+            final Deque<Task> deque = lane.get(worker);
+            deque.addFirst(task);
+            if (checkNotDropped(deque, task)) {
+                signal();
+            }
+        }
+
+        boolean hasTasks() {
+            for (final Deque<Task> deque : lane) {
+                if (!deque.isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
 
-            if (exception == null) {
-                exception = e;
+        /**
+         * Takes task if number of running tasks of call is below limit:
+         * the most recent one of deque of given worker, or {@link #steal(int) stolen} one if it is empty.
+         */
+        Task take(final int worker) {
+            if (!hasTasks()) {
+                return null;
+            }
+            int count;
+            do {
+                count = running.get();
+                if (count >= maxConcurrency) {
+                    return null;
+                }
+            } while (!running.compareAndSet(count, count + 1));
+            Task task = lane.get(worker).pollFirst();
+            if (task == null) {
+                task = steal(worker);
+            }
+            if (task == null) {
+                release();
             } else {
-                exception.addSuppressed(e);
+                metrics.queued.decrement();
+            }
+            return task;
+        }
+
+        /**
+         * Takes task for worker with empty deque: the oldest of some other deque, so the largest range.
+         * Deques are visited starting from the next worker, so thieves spread over victims.
+         */
+        Task steal(final int worker) {
+            for (int i = 1; i < lane.size(); i++) {
+                final Task task = lane.get((worker + i) % lane.size()).pollLast();
+                if (task != null) {
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Marks task taken by {@link #take(int)} finished.
+         */
+        void release() {
+            final int count = running.getAndDecrement();
+            if (count == maxConcurrency && hasTasks()) {
+                signal();
+            }
+            if (count == 1) {
+                stopped();
             }
         }
 
-        synchronized void shutdown() {
+        /**
+         * Called when no task of call is running.
+         */
+        void stopped() {
+        }
+
+        void wake() {
+            LockSupport.unpark(waiter);
+        }
+
+        void shutdown() {
             needFinish = true;
-            notify();
+            wake();
         }
 
-        synchronized void set(final int pos, final R data) {
-            if (needFinish) {
+        /**
+         * Parks {@link #waiter} until it is woken up.
+         */
+        void park() throws InterruptedException {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * Task of lane remembering when it was queued.
+     */
+    private abstract static class Task {
+        long queuedAt;
+
+        /**
+         * Runs task by worker with given index.
+         */
+        abstract void run(int worker);
+    }
+
+    private static class RangeTask extends Task {
+        private final ResultCollector<?, ?> collector;
+        private int from;
+        private int to;
+
+        RangeTask(final ResultCollector<?, ?> collector, final int from, final int to) {
+            this.collector = collector;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        void run(final int worker) {
+            if (!collector.isRunning()) {
                 return;
             }
+            int grain = collector.grain;
+            if (grain == 0) {
+                from = collector.calibrate(from, to);
+                grain = collector.grain;
+            }
+            while (to - from > grain && collector.isRunning()) {
+                final int mid = (from + to) >>> 1;
+                collector.push(worker, new RangeTask(collector, mid, to));
+                to = mid;
+            }
+            collector.compute(from, to);
+        }
+    }
+
+    private static final int RUNNING = 0;
+    private static final int DONE = 1;
+    private static final int CANCELLED = 2;
+    private static final int EXPIRED = 3;
+    private static final String[] OUTCOMES = {"running", "done", "cancelled", "expired"};
 
-            res.set(pos, data);
-            if (++done == res.size()) {
-                notify();
+    /**
+     * Collects results of single {@link #map} call without locks:
+     * every slot is written by exactly one worker and waiter is unparked by the one which finishes the last range.
+     * Deadline is checked by waiter and by workers before every range.
+     */
+    private class ResultCollector<T, R> extends Call implements MapHandle<R> {
+        private final Function<? super T, ? extends R> f;
+        private final List<? extends T> args;
+        private final Object[] res;
+        private final int maxGrain;
+        private final AtomicInteger remaining;
+        private final Queue<RuntimeException> exceptions = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private final boolean timed;
+        private final long started = System.nanoTime();
+        private final long deadline;
+        // event classes are not loaded until flight recorder is used, as loading them is slow
+        private final MapCallEvent event = FlightRecorder.isInitialized() ? new MapCallEvent() : null;
+        private final boolean partialResults;
+        private volatile int grain;
+        private RuntimeException failure;
+        private boolean reported;
+
+        ResultCollector(final Function<? super T, ? extends R> f, final List<? extends T> args, final MapOptions options) {
+            super(options);
+            final int grain = options.getChunkSize();
+            this.f = f;
+            this.args = args;
+            res = new Object[args.size()];
+            remaining = new AtomicInteger(res.length);
+            maxGrain = Math.max(1, res.length / (RANGES_PER_WORKER * workers.size()));
+            // nothing to calibrate if every argument is a chunk anyway
+            this.grain = grain == 0 && maxGrain == 1 ? 1 : grain;
+            timed = options.getTimeoutNanos() != Long.MAX_VALUE;
+            deadline = started + (timed ? options.getTimeoutNanos() : 0);
+            partialResults = options.isPartialResults();
+            if (event != null) {
+                event.begin();
             }
         }
 
-        synchronized List<R> get() throws InterruptedException {
-            while (done < res.size() && !needFinish) {
-                wait();
+        boolean isRunning() {
+            if (timed && state.get() == RUNNING && System.nanoTime() - deadline >= 0) {
+                finish(EXPIRED);
             }
-            synchronized (ParallelMapperImpl.this) {
-                collectors.remove(ResultCollector.this);
+            return state.get() == RUNNING;
+        }
+
+        /**
+         * Computes first elements of range measuring their cost and chooses grain by it.
+         * Probing stops as soon as it takes longer than target time of range, so slow functions are not serialized.
+         * Returns start of the rest of range.
+         */
+        int calibrate(final int from, final int to) {
+            final long start = System.nanoTime();
+            int pos = from;
+            long elapsed;
+            do {
+                compute(pos, pos + 1);
+                pos++;
+                elapsed = System.nanoTime() - start;
+            } while (pos < to && pos - from < PROBE_SIZE && elapsed < TARGET_RANGE_NANOS);
+            final long cost = Math.max(1, elapsed / (pos - from));
+            grain = (int) Math.max(1, Math.min(maxGrain, TARGET_RANGE_NANOS / cost));
+            return pos;
+        }
+
+        void compute(final int from, final int to) {
+            for (int pos = from; pos < to; pos++) {
+                if (state.get() != RUNNING) {
+                    return;
+                }
+                try {
+                    res[pos] = f.apply(args.get(pos));
+                } catch (final RuntimeException e) {
+                    if (!needFinish) {
+                        exceptions.add(e);
+                        metrics.failed.increment();
+                    }
+                }
+            }
+            if (remaining.addAndGet(from - to) == 0) {
+                finish(DONE);
+            }
+        }
+
+        /**
+         * Moves call from running state to given one. Returns {@code false} if call is already finished.
+         */
+        private boolean finish(final int finalState) {
+            if (!state.compareAndSet(RUNNING, finalState)) {
+                return false;
+            }
+            drop();
+            wake();
+            metrics.callTime.record(System.nanoTime() - started);
+            (finalState == DONE ? metrics.completed : metrics.cancelled).increment();
+            if (event != null && event.shouldCommit()) {
+                event.size = res.length;
+                event.weight = weight;
+                event.failed = exceptions.size();
+                event.outcome = OUTCOMES[finalState];
+                event.commit();
+            }
+            return true;
+        }
+
+        @Override
+        void stopped() {
+            if (state.get() != RUNNING) {
+                wake();
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            return finish(CANCELLED);
+        }
+
+        @Override
+        public boolean isDone() {
+            return state.get() != RUNNING;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() >= CANCELLED;
+        }
+
+        @Override
+        public List<R> get() throws InterruptedException {
+            waiter = Thread.currentThread();
+            try {
+                while (isRunning() && !needFinish) {
+                    if (timed) {
+                        LockSupport.parkNanos(this, deadline - System.nanoTime());
+                        if (Thread.interrupted()) {
+                            throw new InterruptedException();
+                        }
+                    } else {
+                        park();
+                    }
+                }
+            } catch (final InterruptedException e) {
+                cancel();
+                throw e;
+            }
+            final int finalState = state.get();
+            if (finalState == CANCELLED || finalState == EXPIRED && !partialResults) {
+                throw new CancellationException(finalState == CANCELLED ? "Call is cancelled" : "Deadline exceeded");
             }
-            if (exception != null) {
-                throw exception;
+            if (finalState == EXPIRED) {
+                awaitStopped();
             }
-            return res;
+            return report();
+        }
+
+        /**
+         * Waits until running tasks notice cancellation, so partial results are not written anymore.
+         */
+        private void awaitStopped() {
+            boolean interrupted = false;
+            while (running.get() > 0) {
+                LockSupport.park(this);
+                interrupted |= Thread.interrupted();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized List<R> report() {
+            if (!reported) {
+                reported = true;
+                failure = exceptions.poll();
+                if (failure != null) {
+                    exceptions.forEach(failure::addSuppressed);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return Arrays.asList((R[]) res);
         }
     }
 
     /**
      * Apply given {@link Function} to given arguments. Calculations are spread on several parallel threads.
+     * Arguments are processed in contiguous chunks whose size is chosen by measured cost of {@code f}.
      *
      * @param f is given {@link Function} to apply
      * @param args is {@link List} of arguments to apply {@code f} on
@@ -128,31 +605,284 @@ public class ParallelMapperImpl implements ParallelMapper {
      */
     @Override
     public <T, R> List<R> map(final Function<? super T, ? extends R> f, final List<? extends T> args) throws InterruptedException {
-        synchronized (this) {
-            if (closed) {
-                throw new RuntimeException("Mapper is closed");
+        return map(f, args, MapOptions.defaults());
+    }
+
+    /**
+     * Apply given {@link Function} to given arguments processing them in chunks of given size.
+     *
+     * @param f is given {@link Function} to apply
+     * @param args is {@link List} of arguments to apply {@code f} on
+     * @param chunkSize is number of arguments processed by one task, {@code 0} to choose it automatically
+     * @param <T> is type of given arguments
+     * @param <R> is type of mapped arguments via {@code f}
+     * @return {@link List} of results
+     * @throws InterruptedException if thread-workers were interrupted
+     * @throws IllegalArgumentException if {@code chunkSize} is negative
+     */
+    public <T, R> List<R> map(
+            final Function<? super T, ? extends R> f,
+            final List<? extends T> args,
+            final int chunkSize
+    ) throws InterruptedException {
+        return map(f, args, MapOptions.defaults().withChunkSize(chunkSize));
+    }
+
+    /**
+     * Apply given {@link Function} to given arguments with given weight, concurrency limit and chunk size.
+     *
+     * @param f is given {@link Function} to apply
+     * @param args is {@link List} of arguments to apply {@code f} on
+     * @param options is {@link MapOptions} of call
+     * @param <T> is type of given arguments
+     * @param <R> is type of mapped arguments via {@code f}
+     * @return {@link List} of results
+     * @throws InterruptedException if thread-workers were interrupted
+     * @throws CancellationException if deadline of call is exceeded without partial results
+     * @see MapHandle#get()
+     */
+    public <T, R> List<R> map(
+            final Function<? super T, ? extends R> f,
+            final List<? extends T> args,
+            final MapOptions options
+    ) throws InterruptedException {
+        return this.<T, R>submit(f, args, options).get();
+    }
+
+    /**
+     * Starts applying given {@link Function} to given arguments without waiting for results.
+     *
+     * @param f is given {@link Function} to apply
+     * @param args is {@link List} of arguments to apply {@code f} on
+     * @param options is {@link MapOptions} of call
+     * @param <T> is type of given arguments
+     * @param <R> is type of mapped arguments via {@code f}
+     * @return {@link MapHandle} to wait for results or cancel call
+     */
+    public <T, R> MapHandle<R> submit(
+            final Function<? super T, ? extends R> f,
+            final List<? extends T> args,
+            final MapOptions options
+    ) {
+        final ResultCollector<T, R> collector = new ResultCollector<>(f, args, options);
+        collector.register();
+        if (args.isEmpty()) {
+            collector.finish(DONE);
+        } else {
+            collector.submit(new RangeTask(collector, 0, args.size()));
+        }
+        return collector;
+    }
+
+    /**
+     * Outcome of mapping of single streamed argument.
+     */
+    private static class Outcome {
+        private final Object value;
+        private final RuntimeException exception;
+
+        Outcome(final Object value, final RuntimeException exception) {
+            this.value = value;
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * Streaming call. Arguments are read by consumer thread only, so no more than {@code maxInFlight}
+     * results are computed but not taken. Ordered results are kept in ring buffer indexed by sequence number.
+     */
+    private class StreamingCall<T, R> extends Call implements ResultIterator<R> {
+        private final Function<? super T, ? extends R> f;
+        private final Iterator<? extends T> args;
+        private final int maxInFlight;
+        private final AtomicReferenceArray<Outcome> reorder;
+        private final Queue<Outcome> completed;
+        private long sent;
+        private long taken;
+        private boolean registered = true;
+
+        StreamingCall(
+                final Function<? super T, ? extends R> f,
+                final Iterator<? extends T> args,
+                final boolean ordered,
+                final int maxInFlight
+        ) {
+            super(MapOptions.defaults());
+            this.f = f;
+            this.args = args;
+            this.maxInFlight = maxInFlight;
+            reorder = ordered ? new AtomicReferenceArray<>(maxInFlight) : null;
+            completed = ordered ? null : new ConcurrentLinkedQueue<>();
+        }
+
+        /**
+         * Tasks of single arguments are all submitted to inbox and taken in order of arguments by every worker.
+         */
+        @Override
+        Task steal(final int worker) {
+            return inbox.pollFirst();
+        }
+
+        private void fill() {
+            while (!needFinish && sent - taken < maxInFlight && args.hasNext()) {
+                final T arg = args.next();
+                final long seq = sent++;
+                submit(new Task() {
+                    @Override
+                    void run(final int worker) {
+                        complete(seq, arg);
+                    }
+                });
             }
         }
-        final ResultCollector<R> collector = new ResultCollector<>(args.size());
-        for (int i = 0; i < args.size(); i++) {
-            final int pos = i;
-            addTask(() -> {
-                try {
-                    collector.set(pos, f.apply(args.get(pos)));
-                } catch (final RuntimeException e) {
-                    collector.addException(e);
+
+        private void complete(final long seq, final T arg) {
+            if (needFinish) {
+                return;
+            }
+            Outcome outcome;
+            try {
+                outcome = new Outcome(f.apply(arg), null);
+            } catch (final RuntimeException e) {
+                outcome = new Outcome(null, e);
+                metrics.failed.increment();
+            }
+            if (reorder != null) {
+                reorder.set((int) (seq % maxInFlight), outcome);
+            } else {
+                completed.add(outcome);
+            }
+            wake();
+        }
+
+        private Outcome poll() {
+            if (reorder == null) {
+                return completed.poll();
+            }
+            final int slot = (int) (taken % maxInFlight);
+            final Outcome outcome = reorder.get(slot);
+            if (outcome != null) {
+                reorder.set(slot, null);
+            }
+            return outcome;
+        }
+
+        /**
+         * Unregisters call as soon as arguments are exhausted and all results are taken.
+         */
+        private void unregisterIfFinished() {
+            if (registered && taken == sent) {
+                registered = false;
+                drop();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            unregisterIfFinished();
+            return taken < sent;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public R next() throws InterruptedException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more results");
+            }
+            waiter = Thread.currentThread();
+            Outcome outcome;
+            while ((outcome = poll()) == null) {
+                if (needFinish) {
+                    throw new RuntimeException("Mapper is closed");
                 }
-            });
+                park();
+            }
+            taken++;
+            fill();
+            unregisterIfFinished();
+            if (outcome.exception != null) {
+                throw outcome.exception;
+            }
+            return (R) outcome.value;
         }
-        return collector.get();
+
+        @Override
+        public void close() {
+            needFinish = true;
+            sent = taken;
+            unregisterIfFinished();
+        }
+    }
+
+    /**
+     * Apply given {@link Function} to arguments read from given {@link Iterator}, yielding results as soon as they are ready.
+     * Arguments are read lazily by thread calling {@link ResultIterator#hasNext()}, so memory used does not depend on
+     * number of arguments.
+     *
+     * @param f is given {@link Function} to apply
+     * @param args is {@link Iterator} of arguments to apply {@code f} on
+     * @param ordered whether results have to be returned in order of arguments
+     * @param maxInFlight is maximal number of arguments which are submitted but whose results are not taken yet
+     * @param <T> is type of given arguments
+     * @param <R> is type of mapped arguments via {@code f}
+     * @return {@link ResultIterator} of results, which has to be closed if not read to the end
+     * @throws IllegalArgumentException if {@code maxInFlight} is not positive
+     */
+    public <T, R> ResultIterator<R> mapStreaming(
+            final Function<? super T, ? extends R> f,
+            final Iterator<? extends T> args,
+            final boolean ordered,
+            final int maxInFlight
+    ) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in flight count must be positive");
+        }
+        final StreamingCall<T, R> call = new StreamingCall<>(f, args, ordered, maxInFlight);
+        call.register();
+        return call;
+    }
+
+    /**
+     * Apply given {@link Function} to elements of given {@link Stream}, yielding results as soon as they are ready.
+     *
+     * @param f is given {@link Function} to apply
+     * @param args is {@link Stream} of arguments to apply {@code f} on
+     * @param ordered whether results have to be returned in order of arguments
+     * @param maxInFlight is maximal number of arguments which are submitted but whose results are not taken yet
+     * @param <T> is type of given arguments
+     * @param <R> is type of mapped arguments via {@code f}
+     * @return {@link ResultIterator} of results, which has to be closed if not read to the end
+     * @throws IllegalArgumentException if {@code maxInFlight} is not positive
+     * @see #mapStreaming(Function, Iterator, boolean, int)
+     */
+    public <T, R> ResultIterator<R> mapStreaming(
+            final Function<? super T, ? extends R> f,
+            final Stream<? extends T> args,
+            final boolean ordered,
+            final int maxInFlight
+    ) {
+        return mapStreaming(f, args.iterator(), ordered, maxInFlight);
     }
 
     /**
      * Stops all calculations. Threads are made interrupted.
      */
     @Override
-    synchronized public void close() {
-        closed = true;
+    public void close() {
+        final List<ObjectName> names;
+        synchronized (this) {
+            closed = true;
+            names = List.copyOf(mbeans);
+            mbeans.clear();
+        }
+        // workers finishing calls unregister them under mapper monitor, so they are joined outside of it
+        idleLock.lock();
+        try {
+            hasTasks.signalAll();
+        } finally {
+            idleLock.unlock();
+        }
         threads.forEach(Thread::interrupt);
         for (int i = 0; i < threads.size(); i++) {
             try {
@@ -161,6 +891,106 @@ public class ParallelMapperImpl implements ParallelMapper {
                 i--;
             }
         }
-        List.copyOf(collectors).forEach(ResultCollector::shutdown);
+        Arrays.stream(lanes).forEach(Call::shutdown);
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (final ObjectName name : names) {
+            try {
+                server.unregisterMBean(name);
+            } catch (final JMException ignored) {
+                // already unregistered from outside
+            }
+        }
+    }
+
+    /**
+     * Returns current metrics: queue depth, utilization of workers, wait and run time of tasks and time of calls.
+     *
+     * @return {@link MapperSnapshot} of metrics
+     */
+    public MapperSnapshot snapshot() {
+        return metrics.snapshot(lanes.length);
+    }
+
+    /**
+     * Registers {@link MapperMXBean} of this mapper in platform MBean server. It is unregistered on {@link #close()}.
+     *
+     * @param name is name of MBean, e.g. {@code ru.ifmo.rain.kurbatov:type=ParallelMapper,name=compute}
+     * @throws JMException if MBean can not be registered
+     */
+    synchronized public void registerMBean(final ObjectName name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new Management(), name);
+        mbeans.add(name);
+    }
+
+    private class Management implements MapperMXBean {
+        @Override
+        public int getWorkers() {
+            return workers.size();
+        }
+
+        @Override
+        public int getActiveCalls() {
+            return lanes.length;
+        }
+
+        @Override
+        public long getQueuedTasks() {
+            return metrics.queued.sum();
+        }
+
+        @Override
+        public long getExecutedTasks() {
+            return metrics.executed.sum();
+        }
+
+        @Override
+        public long getFailedElements() {
+            return metrics.failed.sum();
+        }
+
+        @Override
+        public long getCompletedCalls() {
+            return metrics.completed.sum();
+        }
+
+        @Override
+        public long getCancelledCalls() {
+            return metrics.cancelled.sum();
+        }
+
+        @Override
+        public double getUtilization() {
+            return snapshot().getUtilization();
+        }
+
+        @Override
+        public double getTaskWaitMeanNanos() {
+            return metrics.taskWait.summary().getMean();
+        }
+
+        @Override
+        public long getTaskWaitP99Nanos() {
+            return metrics.taskWait.summary().getPercentile(99);
+        }
+
+        @Override
+        public double getTaskRunMeanNanos() {
+            return metrics.taskRun.summary().getMean();
+        }
+
+        @Override
+        public long getTaskRunP99Nanos() {
+            return metrics.taskRun.summary().getPercentile(99);
+        }
+
+        @Override
+        public long getCallP50Nanos() {
+            return metrics.callTime.summary().getPercentile(50);
+        }
+
+        @Override
+        public long getCallP99Nanos() {
+            return metrics.callTime.summary().getPercentile(99);
+        }
     }
-}
\ No newline at end of file
+}
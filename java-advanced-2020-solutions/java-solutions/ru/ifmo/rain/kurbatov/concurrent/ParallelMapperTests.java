@@ -0,0 +1,230 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelMapperTests {
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private static List<Integer> range(final int size) {
+        return IntStream.range(0, size).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void test1_closeWhileCallsComplete() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            final List<Integer> values = range(100);
+            for (int i = 0; i < 200; i++) {
+                final ParallelMapperImpl mapper = new ParallelMapperImpl(4);
+                final Thread caller = new Thread(() -> {
+                    try {
+                        while (true) {
+                            mapper.map(x -> x + 1, values);
+                        }
+                    } catch (final InterruptedException | RuntimeException ignored) {
+                        // mapper is closed
+                    }
+                });
+                caller.start();
+                Thread.sleep(1);
+                mapper.close();
+                caller.interrupt();
+                caller.join();
+            }
+        });
+    }
+
+    @Test
+    public void test2_streamingUnregistersWhenExhausted() throws InterruptedException {
+        try (final ParallelMapperImpl mapper = new ParallelMapperImpl(3)) {
+            final List<Integer> values = range(1000);
+            for (final boolean ordered : new boolean[]{true, false}) {
+                for (int i = 0; i < 5; i++) {
+                    final ResultIterator<Integer> results = mapper.mapStreaming(x -> x * 2, values.iterator(), ordered, 16);
+                    final List<Integer> res = new ArrayList<>();
+                    while (results.hasNext()) {
+                        res.add(results.next());
+                    }
+                    if (!ordered) {
+                        res.sort(Integer::compare);
+                    }
+                    assertEquals(values.stream().map(x -> x * 2).collect(Collectors.toList()), res);
+                }
+            }
+            assertEquals(0, mapper.snapshot().getActiveCalls());
+
+            final ResultIterator<Integer> unfinished = mapper.mapStreaming(x -> x, values.iterator(), true, 16);
+            unfinished.next();
+            assertEquals(1, mapper.snapshot().getActiveCalls());
+            unfinished.close();
+            assertEquals(0, mapper.snapshot().getActiveCalls());
+        }
+    }
+
+    private static Function<Integer, Integer> sleeping(final long millis, final AtomicInteger calls) {
+        return x -> {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(millis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return x;
+        };
+    }
+
+    @Test
+    public void test3_cancelDropsPendingTasks() throws InterruptedException {
+        try (final ParallelMapperImpl mapper = new ParallelMapperImpl(2)) {
+            final List<Integer> values = range(1000);
+            final AtomicInteger calls = new AtomicInteger();
+            final CountDownLatch started = new CountDownLatch(1);
+            final MapHandle<Integer> handle = mapper.submit(x -> {
+                started.countDown();
+                return sleeping(2, calls).apply(x);
+            }, values, MapOptions.defaults().withChunkSize(1));
+            started.await();
+            assertTrue(handle.cancel());
+            assertFalse(handle.cancel());
+            assertTrue(handle.isDone());
+            assertTrue(handle.isCancelled());
+            assertThrows(CancellationException.class, handle::get);
+
+            Thread.sleep(50);
+            final int afterCancel = calls.get();
+            assertTrue(afterCancel < values.size(), "cancelled call mapped all " + afterCancel + " arguments");
+            Thread.sleep(50);
+            assertEquals(afterCancel, calls.get());
+            assertEquals(0, mapper.snapshot().getActiveCalls());
+            assertEquals(values, mapper.map(x -> x, values));
+        }
+    }
+
+    @Test
+    public void test4_deadlineExpiresCall() throws InterruptedException {
+        try (final ParallelMapperImpl mapper = new ParallelMapperImpl(2)) {
+            final List<Integer> values = range(1000);
+            final MapOptions options = MapOptions.defaults().withChunkSize(1).withTimeout(100, TimeUnit.MILLISECONDS);
+
+            final MapHandle<Integer> strict = mapper.submit(sleeping(2, new AtomicInteger()), values, options);
+            assertThrows(CancellationException.class, strict::get);
+            assertTrue(strict.isDone());
+            assertTrue(strict.isCancelled());
+            assertFalse(strict.cancel());
+
+            final List<Integer> partial = mapper.map(sleeping(2, new AtomicInteger()), values, options.withPartialResults(true));
+            assertEquals(values.size(), partial.size());
+            final long mapped = partial.stream().filter(Objects::nonNull).count();
+            assertTrue(mapped > 0 && mapped < values.size(), "mapped " + mapped + " arguments");
+            for (int i = 0; i < values.size(); i++) {
+                if (partial.get(i) != null) {
+                    assertEquals(values.get(i), partial.get(i));
+                }
+            }
+
+            final MapHandle<Integer> relaxed = mapper.submit(x -> x, values, MapOptions.defaults().withTimeout(1, TimeUnit.MINUTES));
+            assertEquals(values, relaxed.get());
+            assertFalse(relaxed.isCancelled());
+            assertEquals(0, mapper.snapshot().getActiveCalls());
+        }
+    }
+
+    @Test
+    public void test5_closeWhileHandlesInFlight() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            final List<Integer> values = range(200);
+            for (int i = 0; i < 50; i++) {
+                final ParallelMapperImpl mapper = new ParallelMapperImpl(3);
+                final List<MapHandle<Integer>> handles = new ArrayList<>();
+                for (int j = 0; j < 4; j++) {
+                    handles.add(mapper.submit(sleeping(1, new AtomicInteger()), values, MapOptions.defaults().withWeight(j + 1)));
+                }
+                Thread.sleep(2);
+                mapper.close();
+                for (final MapHandle<Integer> handle : handles) {
+                    try {
+                        handle.get();
+                    } catch (final CancellationException ignored) {
+                        // call was cancelled by close
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    public void test6_cancelWhileSplittingLeavesNoQueuedTasks() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            final List<Integer> values = range(100_000);
+            try (final ParallelMapperImpl mapper = new ParallelMapperImpl(8)) {
+                for (int i = 0; i < 500; i++) {
+                    final MapHandle<Integer> handle = mapper.submit(x -> x, values, MapOptions.defaults().withChunkSize(1));
+                    Thread.yield();
+                    handle.cancel();
+                }
+                assertEquals(values, mapper.map(x -> x, values));
+                while (mapper.snapshot().getActiveCalls() > 0) {
+                    Thread.sleep(1);
+                }
+                assertEquals(0, mapper.snapshot().getQueuedTasks());
+            }
+        });
+    }
+
+    @Test
+    public void test7_weightedCallsGetProportionalShares() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (final ParallelMapperImpl mapper = new ParallelMapperImpl(1)) {
+                final CountDownLatch release = new CountDownLatch(1);
+                final MapHandle<Integer> gate = mapper.submit(x -> {
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return x;
+                }, range(1), MapOptions.defaults());
+
+                // the only worker is blocked, so both calls are registered before any of their tasks is taken
+                final int[] weights = {1, 3};
+                final List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+                final List<MapHandle<Integer>> handles = new ArrayList<>();
+                for (int i = 0; i < weights.length; i++) {
+                    final int call = i;
+                    handles.add(mapper.submit(x -> {
+                        order.add(call);
+                        return x;
+                    }, range(2_000), MapOptions.defaults().withWeight(weights[i]).withChunkSize(1)));
+                }
+                release.countDown();
+                gate.get();
+                for (final MapHandle<Integer> handle : handles) {
+                    handle.get();
+                }
+
+                // while both calls have tasks, every 4 turns give 1 task to the first call and 3 to the second one
+                final int[] shares = new int[weights.length];
+                for (final int call : order.subList(0, 1_000)) {
+                    shares[call]++;
+                }
+                assertEquals(250, shares[0], 10, "shares " + Arrays.toString(shares));
+                assertEquals(750, shares[1], 10, "shares " + Arrays.toString(shares));
+            }
+        });
+    }
+}
@@ -0,0 +1,413 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import ru.ifmo.rain.kurbatov.concurrent.IterativeParallelism.ChunkMatches;
+import ru.ifmo.rain.kurbatov.concurrent.IterativeParallelism.IndexedRangeFunction;
+import ru.ifmo.rain.kurbatov.concurrent.IterativeParallelism.RangeFunction;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.*;
+
+/**
+ * Implementation of {@link IntIP}, {@link LongIP} and {@link DoubleIP}.
+ * Every chunk is processed by plain loop over array, so values are never boxed and loops may be vectorized by JIT.
+ * Chunks are run the same way as by underlying {@link IterativeParallelism}: in new threads, on mapper or on executor.
+ */
+public class PrimitiveParallelism implements IntIP, LongIP, DoubleIP {
+    private final IterativeParallelism parallelism;
+
+    public PrimitiveParallelism() {
+        this(new IterativeParallelism());
+    }
+
+    /**
+     * Makes instance which runs chunks the same way as given {@link IterativeParallelism}.
+     *
+     * @param parallelism is {@link IterativeParallelism} to run chunks
+     */
+    public PrimitiveParallelism(final IterativeParallelism parallelism) {
+        this.parallelism = Objects.requireNonNull(parallelism);
+    }
+
+    private <R> List<R> run(final int threads, final int from, final int to, final int length,
+                            final RangeFunction<R> func) throws InterruptedException {
+        Objects.checkFromToIndex(from, to, length);
+        return parallelism.runRanges(threads, to - from, (l, r) -> func.apply(from + l, from + r));
+    }
+
+    private <R> List<R> runIndexed(final int threads, final int from, final int to, final int length,
+                                   final IndexedRangeFunction<R> func) throws InterruptedException {
+        Objects.checkFromToIndex(from, to, length);
+        return parallelism.runIndexedRanges(threads, to - from, (index, l, r) -> func.apply(index, from + l, from + r));
+    }
+
+    private static void checkNotEmpty(final int from, final int to, final int length) {
+        Objects.checkFromToIndex(from, to, length);
+        if (from == to) {
+            throw new IllegalArgumentException("Slice is empty");
+        }
+    }
+
+    private static void checkBins(final int bins) {
+        if (bins <= 0) {
+            throw new IllegalArgumentException("Bins count must be positive");
+        }
+    }
+
+    private static long[] sumHistograms(final int bins, final List<long[]> chunks) {
+        final long[] res = new long[bins];
+        for (final long[] chunk : chunks) {
+            for (int i = 0; i < bins; i++) {
+                res[i] += chunk[i];
+            }
+        }
+        return res;
+    }
+
+    // int
+
+    @Override
+    public long sum(final int threads, final int[] values, final int from, final int to) throws InterruptedException {
+        long res = 0;
+        for (final long chunk : run(threads, from, to, values.length, (l, r) -> {
+            long acc = 0;
+            for (int i = l; i < r; i++) {
+                acc += values[i];
+            }
+            return acc;
+        })) {
+            res += chunk;
+        }
+        return res;
+    }
+
+    @Override
+    public int maximum(final int threads, final int[] values, final int from, final int to) throws InterruptedException {
+        checkNotEmpty(from, to, values.length);
+        return reduce(threads, values, from, to, values[from], Math::max);
+    }
+
+    @Override
+    public int minimum(final int threads, final int[] values, final int from, final int to) throws InterruptedException {
+        checkNotEmpty(from, to, values.length);
+        return reduce(threads, values, from, to, values[from], Math::min);
+    }
+
+    @Override
+    public boolean all(final int threads, final int[] values, final int from, final int to, final IntPredicate predicate) throws InterruptedException {
+        return !any(threads, values, from, to, predicate.negate());
+    }
+
+    @Override
+    public boolean any(final int threads, final int[] values, final int from, final int to, final IntPredicate predicate) throws InterruptedException {
+        final AtomicBoolean found = new AtomicBoolean();
+        run(threads, from, to, values.length, (l, r) -> {
+            for (int i = l; i < r && !found.get(); i++) {
+                if (predicate.test(values[i])) {
+                    found.set(true);
+                }
+            }
+            return null;
+        });
+        return found.get();
+    }
+
+    @Override
+    public int[] filter(final int threads, final int[] values, final int from, final int to, final IntPredicate predicate) throws InterruptedException {
+        final List<ChunkMatches> chunks = run(threads, from, to, values.length, (l, r) -> {
+            final BitSet matches = new BitSet(r - l);
+            for (int i = l; i < r; i++) {
+                if (predicate.test(values[i])) {
+                    matches.set(i - l);
+                }
+            }
+            return new ChunkMatches(matches);
+        });
+        final int[] res = new int[IterativeParallelism.layout(chunks)];
+        runIndexed(threads, from, to, values.length, (index, l, r) -> {
+            final ChunkMatches chunk = chunks.get(index);
+            int pos = chunk.offset;
+            for (int i = chunk.matches.nextSetBit(0); i >= 0; i = chunk.matches.nextSetBit(i + 1)) {
+                res[pos++] = values[l + i];
+            }
+            return null;
+        });
+        return res;
+    }
+
+    @Override
+    public int[] map(final int threads, final int[] values, final int from, final int to, final IntUnaryOperator f) throws InterruptedException {
+        final int[] res = new int[to - from];
+        run(threads, from, to, values.length, (l, r) -> {
+            for (int i = l; i < r; i++) {
+                res[i - from] = f.applyAsInt(values[i]);
+            }
+            return null;
+        });
+        return res;
+    }
+
+    @Override
+    public int reduce(final int threads, final int[] values, final int from, final int to,
+                       final int identity, final IntBinaryOperator operator) throws InterruptedException {
+        int res = identity;
+        for (final Integer chunk : run(threads, from, to, values.length, (l, r) -> {
+            int acc = identity;
+            for (int i = l; i < r; i++) {
+                acc = operator.applyAsInt(acc, values[i]);
+            }
+            return acc;
+        })) {
+            res = operator.applyAsInt(res, chunk);
+        }
+        return res;
+    }
+
+    @Override
+    public long[] histogram(final int threads, final int[] values, final int from, final int to,
+                            final int min, final int bins) throws InterruptedException {
+        checkBins(bins);
+        return sumHistograms(bins, run(threads, from, to, values.length, (l, r) -> {
+            final long[] res = new long[bins];
+            for (int i = l; i < r; i++) {
+                final long bin = (long) values[i] - min;
+                if (0 <= bin && bin < bins) {
+                    res[(int) bin]++;
+                }
+            }
+            return res;
+        }));
+    }
+
+    // long
+
+    @Override
+    public long sum(final int threads, final long[] values, final int from, final int to) throws InterruptedException {
+        long res = 0;
+        for (final long chunk : run(threads, from, to, values.length, (l, r) -> {
+            long acc = 0;
+            for (int i = l; i < r; i++) {
+                acc += values[i];
+            }
+            return acc;
+        })) {
+            res += chunk;
+        }
+        return res;
+    }
+
+    @Override
+    public long maximum(final int threads, final long[] values, final int from, final int to) throws InterruptedException {
+        checkNotEmpty(from, to, values.length);
+        return reduce(threads, values, from, to, values[from], Math::max);
+    }
+
+    @Override
+    public long minimum(final int threads, final long[] values, final int from, final int to) throws InterruptedException {
+        checkNotEmpty(from, to, values.length);
+        return reduce(threads, values, from, to, values[from], Math::min);
+    }
+
+    @Override
+    public boolean all(final int threads, final long[] values, final int from, final int to, final LongPredicate predicate) throws InterruptedException {
+        return !any(threads, values, from, to, predicate.negate());
+    }
+
+    @Override
+    public boolean any(final int threads, final long[] values, final int from, final int to, final LongPredicate predicate) throws InterruptedException {
+        final AtomicBoolean found = new AtomicBoolean();
+        run(threads, from, to, values.length, (l, r) -> {
+            for (int i = l; i < r && !found.get(); i++) {
+                if (predicate.test(values[i])) {
+                    found.set(true);
+                }
+            }
+            return null;
+        });
+        return found.get();
+    }
+
+    @Override
+    public long[] filter(final int threads, final long[] values, final int from, final int to, final LongPredicate predicate) throws InterruptedException {
+        final List<ChunkMatches> chunks = run(threads, from, to, values.length, (l, r) -> {
+            final BitSet matches = new BitSet(r - l);
+            for (int i = l; i < r; i++) {
+                if (predicate.test(values[i])) {
+                    matches.set(i - l);
+                }
+            }
+            return new ChunkMatches(matches);
+        });
+        final long[] res = new long[IterativeParallelism.layout(chunks)];
+        runIndexed(threads, from, to, values.length, (index, l, r) -> {
+            final ChunkMatches chunk = chunks.get(index);
+            int pos = chunk.offset;
+            for (int i = chunk.matches.nextSetBit(0); i >= 0; i = chunk.matches.nextSetBit(i + 1)) {
+                res[pos++] = values[l + i];
+            }
+            return null;
+        });
+        return res;
+    }
+
+    @Override
+    public long[] map(final int threads, final long[] values, final int from, final int to, final LongUnaryOperator f) throws InterruptedException {
+        final long[] res = new long[to - from];
+        run(threads, from, to, values.length, (l, r) -> {
+            for (int i = l; i < r; i++) {
+                res[i - from] = f.applyAsLong(values[i]);
+            }
+            return null;
+        });
+        return res;
+    }
+
+    @Override
+    public long reduce(final int threads, final long[] values, final int from, final int to,
+                       final long identity, final LongBinaryOperator operator) throws InterruptedException {
+        long res = identity;
+        for (final Long chunk : run(threads, from, to, values.length, (l, r) -> {
+            long acc = identity;
+            for (int i = l; i < r; i++) {
+                acc = operator.applyAsLong(acc, values[i]);
+            }
+            return acc;
+        })) {
+            res = operator.applyAsLong(res, chunk);
+        }
+        return res;
+    }
+
+    @Override
+    public long[] histogram(final int threads, final long[] values, final int from, final int to,
+                            final long min, final int bins) throws InterruptedException {
+        checkBins(bins);
+        return sumHistograms(bins, run(threads, from, to, values.length, (l, r) -> {
+            final long[] res = new long[bins];
+            for (int i = l; i < r; i++) {
+                // difference of value not less than min may overflow, but is exact as unsigned
+                final long bin = values[i] - min;
+                if (values[i] >= min && Long.compareUnsigned(bin, bins) < 0) {
+                    res[(int) bin]++;
+                }
+            }
+            return res;
+        }));
+    }
+
+    // double
+
+    @Override
+    public double sum(final int threads, final double[] values, final int from, final int to) throws InterruptedException {
+        double res = 0;
+        for (final double chunk : run(threads, from, to, values.length, (l, r) -> {
+            double acc = 0;
+            for (int i = l; i < r; i++) {
+                acc += values[i];
+            }
+            return acc;
+        })) {
+            res += chunk;
+        }
+        return res;
+    }
+
+    @Override
+    public double maximum(final int threads, final double[] values, final int from, final int to) throws InterruptedException {
+        checkNotEmpty(from, to, values.length);
+        return reduce(threads, values, from, to, values[from], Math::max);
+    }
+
+    @Override
+    public double minimum(final int threads, final double[] values, final int from, final int to) throws InterruptedException {
+        checkNotEmpty(from, to, values.length);
+        return reduce(threads, values, from, to, values[from], Math::min);
+    }
+
+    @Override
+    public boolean all(final int threads, final double[] values, final int from, final int to, final DoublePredicate predicate) throws InterruptedException {
+        return !any(threads, values, from, to, predicate.negate());
+    }
+
+    @Override
+    public boolean any(final int threads, final double[] values, final int from, final int to, final DoublePredicate predicate) throws InterruptedException {
+        final AtomicBoolean found = new AtomicBoolean();
+        run(threads, from, to, values.length, (l, r) -> {
+            for (int i = l; i < r && !found.get(); i++) {
+                if (predicate.test(values[i])) {
+                    found.set(true);
+                }
+            }
+            return null;
+        });
+        return found.get();
+    }
+
+    @Override
+    public double[] filter(final int threads, final double[] values, final int from, final int to, final DoublePredicate predicate) throws InterruptedException {
+        final List<ChunkMatches> chunks = run(threads, from, to, values.length, (l, r) -> {
+            final BitSet matches = new BitSet(r - l);
+            for (int i = l; i < r; i++) {
+                if (predicate.test(values[i])) {
+                    matches.set(i - l);
+                }
+            }
+            return new ChunkMatches(matches);
+        });
+        final double[] res = new double[IterativeParallelism.layout(chunks)];
+        runIndexed(threads, from, to, values.length, (index, l, r) -> {
+            final ChunkMatches chunk = chunks.get(index);
+            int pos = chunk.offset;
+            for (int i = chunk.matches.nextSetBit(0); i >= 0; i = chunk.matches.nextSetBit(i + 1)) {
+                res[pos++] = values[l + i];
+            }
+            return null;
+        });
+        return res;
+    }
+
+    @Override
+    public double[] map(final int threads, final double[] values, final int from, final int to, final DoubleUnaryOperator f) throws InterruptedException {
+        final double[] res = new double[to - from];
+        run(threads, from, to, values.length, (l, r) -> {
+            for (int i = l; i < r; i++) {
+                res[i - from] = f.applyAsDouble(values[i]);
+            }
+            return null;
+        });
+        return res;
+    }
+
+    @Override
+    public double reduce(final int threads, final double[] values, final int from, final int to,
+                       final double identity, final DoubleBinaryOperator operator) throws InterruptedException {
+        double res = identity;
+        for (final Double chunk : run(threads, from, to, values.length, (l, r) -> {
+            double acc = identity;
+            for (int i = l; i < r; i++) {
+                acc = operator.applyAsDouble(acc, values[i]);
+            }
+            return acc;
+        })) {
+            res = operator.applyAsDouble(res, chunk);
+        }
+        return res;
+    }
+
+    @Override
+    public long[] histogram(final int threads, final double[] values, final int from, final int to,
+                            final double min, final double max, final int bins) throws InterruptedException {
+        checkBins(bins);
+        final double scale = bins / (max - min);
+        return sumHistograms(bins, run(threads, from, to, values.length, (l, r) -> {
+            final long[] res = new long[bins];
+            for (int i = l; i < r; i++) {
+                final double value = values[i];
+                if (min <= value && value < max) {
+                    res[Math.min(bins - 1, (int) ((value - min) * scale))]++;
+                }
+            }
+            return res;
+        }));
+    }
+}
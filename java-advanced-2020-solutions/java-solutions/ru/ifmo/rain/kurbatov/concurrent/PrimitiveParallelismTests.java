@@ -0,0 +1,167 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveParallelismTests {
+    private static final int[] SIZES = {0, 1, 5, 1_000};
+    private static final int[] THREADS = {1, 3, 16};
+
+    private final Random random = new Random(4_610_283_957L);
+
+    private interface Check {
+        void run(PrimitiveParallelism parallelism, int threads, int size, int from, int to) throws InterruptedException;
+    }
+
+    /**
+     * Runs check on whole arrays and on slices, with more and less threads than elements,
+     * in new threads and on {@link ParallelMapperImpl}.
+     */
+    private static void check(final Check check) throws InterruptedException {
+        try (final ParallelMapperImpl mapper = new ParallelMapperImpl(4)) {
+            for (final PrimitiveParallelism parallelism : new PrimitiveParallelism[]{
+                    new PrimitiveParallelism(),
+                    new PrimitiveParallelism(new IterativeParallelism(mapper))
+            }) {
+                for (final int size : SIZES) {
+                    for (final int threads : THREADS) {
+                        check.run(parallelism, threads, size, 0, size);
+                        check.run(parallelism, threads, size, size / 3, size - size / 4);
+                    }
+                }
+            }
+        }
+    }
+
+    private int[] ints(final int size) {
+        final int[] res = random.ints(size, -100, 100).toArray();
+        if (size > 1) {
+            res[0] = Integer.MAX_VALUE;
+            res[size - 1] = Integer.MIN_VALUE;
+        }
+        return res;
+    }
+
+    private long[] longs(final int size) {
+        final long[] res = random.longs(size).toArray();
+        for (int i = 0; i < size; i += 2) {
+            res[i] %= 100;
+        }
+        return res;
+    }
+
+    private double[] doubles(final int size) {
+        final double[] res = random.ints(size, -100, 100).asDoubleStream().toArray();
+        if (size > 2) {
+            res[size / 2] = Double.NaN;
+        }
+        return res;
+    }
+
+    @Test
+    public void test1_intsMatchStreams() throws InterruptedException {
+        final IntPredicate even = x -> x % 2 == 0;
+        check((parallelism, threads, size, from, to) -> {
+            final int[] values = ints(size);
+            assertEquals(Arrays.stream(values, from, to).asLongStream().sum(), parallelism.sum(threads, values, from, to));
+            assertArrayEquals(Arrays.stream(values, from, to).filter(even).toArray(), parallelism.filter(threads, values, from, to, even));
+            assertArrayEquals(Arrays.stream(values, from, to).map(x -> x * 3).toArray(), parallelism.map(threads, values, from, to, x -> x * 3));
+            assertEquals(Arrays.stream(values, from, to).allMatch(even), parallelism.all(threads, values, from, to, even));
+            assertEquals(Arrays.stream(values, from, to).anyMatch(even), parallelism.any(threads, values, from, to, even));
+            assertEquals(Arrays.stream(values, from, to).reduce(0, Integer::sum), parallelism.reduce(threads, values, from, to, 0, Integer::sum));
+            if (from < to) {
+                assertEquals(Arrays.stream(values, from, to).max().getAsInt(), parallelism.maximum(threads, values, from, to));
+                assertEquals(Arrays.stream(values, from, to).min().getAsInt(), parallelism.minimum(threads, values, from, to));
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> parallelism.maximum(threads, values, from, to));
+                assertThrows(IllegalArgumentException.class, () -> parallelism.minimum(threads, values, from, to));
+            }
+
+            final long[] histogram = new long[20];
+            Arrays.stream(values, from, to).filter(x -> -10 <= x && x < 10).forEach(x -> histogram[x + 10]++);
+            assertArrayEquals(histogram, parallelism.histogram(threads, values, from, to, -10, 20));
+            final long[] extremes = new long[2];
+            Arrays.stream(values, from, to).filter(x -> x >= Integer.MAX_VALUE - 1).forEach(x -> extremes[x - Integer.MAX_VALUE + 1]++);
+            assertArrayEquals(extremes, parallelism.histogram(threads, values, from, to, Integer.MAX_VALUE - 1, 2));
+        });
+    }
+
+    @Test
+    public void test2_longsMatchStreams() throws InterruptedException {
+        check((parallelism, threads, size, from, to) -> {
+            final long[] values = longs(size);
+            assertEquals(Arrays.stream(values, from, to).sum(), parallelism.sum(threads, values, from, to));
+            assertArrayEquals(Arrays.stream(values, from, to).filter(x -> x > 0).toArray(), parallelism.filter(threads, values, from, to, x -> x > 0));
+            assertArrayEquals(Arrays.stream(values, from, to).map(x -> x ^ 1).toArray(), parallelism.map(threads, values, from, to, x -> x ^ 1));
+            assertEquals(Arrays.stream(values, from, to).reduce(1, (a, b) -> a * (b | 1)), parallelism.reduce(threads, values, from, to, 1, (a, b) -> a * (b | 1)));
+            if (from < to) {
+                assertEquals(Arrays.stream(values, from, to).max().getAsLong(), parallelism.maximum(threads, values, from, to));
+                assertEquals(Arrays.stream(values, from, to).min().getAsLong(), parallelism.minimum(threads, values, from, to));
+            }
+
+            // ranges near both ends of long, where value - min overflows
+            for (final long min : new long[]{-50, Long.MIN_VALUE, Long.MAX_VALUE - 99, Long.MAX_VALUE}) {
+                final long[] histogram = new long[100];
+                Arrays.stream(values, from, to)
+                        .filter(x -> min <= x && (min > Long.MAX_VALUE - 100 || x < min + 100))
+                        .forEach(x -> histogram[(int) (x - min)]++);
+                assertArrayEquals(histogram, parallelism.histogram(threads, values, from, to, min, 100), "min " + min);
+            }
+        });
+
+        final long[] extremes = {Long.MIN_VALUE, Long.MIN_VALUE + 1, -1, 0, Long.MAX_VALUE - 1, Long.MAX_VALUE};
+        final PrimitiveParallelism parallelism = new PrimitiveParallelism();
+        assertArrayEquals(new long[]{1, 1}, parallelism.histogram(3, extremes, Long.MIN_VALUE, 2));
+        assertArrayEquals(new long[]{1, 1}, parallelism.histogram(3, extremes, Long.MAX_VALUE - 1, 2));
+        assertArrayEquals(new long[]{1, 0, 0, 0, 0}, parallelism.histogram(3, extremes, Long.MAX_VALUE, 5));
+        assertArrayEquals(new long[]{1, 1, 0}, parallelism.histogram(3, extremes, -1, 3));
+    }
+
+    @Test
+    public void test3_doublesMatchStreams() throws InterruptedException {
+        check((parallelism, threads, size, from, to) -> {
+            final double[] values = doubles(size);
+            assertEquals(Arrays.stream(values, from, to).sum(), parallelism.sum(threads, values, from, to));
+            assertArrayEquals(Arrays.stream(values, from, to).filter(x -> x >= 0).toArray(), parallelism.filter(threads, values, from, to, x -> x >= 0));
+            assertArrayEquals(Arrays.stream(values, from, to).map(x -> x / 2).toArray(), parallelism.map(threads, values, from, to, x -> x / 2));
+            assertEquals(Arrays.stream(values, from, to).anyMatch(Double::isNaN), parallelism.any(threads, values, from, to, Double::isNaN));
+            if (from < to) {
+                assertEquals(Arrays.stream(values, from, to).max().getAsDouble(), parallelism.maximum(threads, values, from, to));
+                assertEquals(Arrays.stream(values, from, to).min().getAsDouble(), parallelism.minimum(threads, values, from, to));
+            }
+
+            final long[] histogram = new long[8];
+            Arrays.stream(values, from, to).filter(x -> -20 <= x && x < 20).forEach(x -> histogram[(int) (x + 20) / 5]++);
+            assertArrayEquals(histogram, parallelism.histogram(threads, values, from, to, -20, 20, 8));
+            assertArrayEquals(new long[3], parallelism.histogram(threads, values, from, to, 7, 7, 3), "min == max");
+            assertArrayEquals(new long[3], parallelism.histogram(threads, values, from, to, 7, -7, 3), "min > max");
+            assertArrayEquals(new long[3], parallelism.histogram(threads, values, from, to, Double.NaN, 7, 3), "NaN bound");
+        });
+
+        final double[] values = {0, 0.5, 1, Math.nextDown(1.0), Double.NaN, Double.POSITIVE_INFINITY, -0.0};
+        final PrimitiveParallelism parallelism = new PrimitiveParallelism();
+        assertArrayEquals(new long[]{2, 2}, parallelism.histogram(2, values, 0, 1, 2), "max is excluded, NaN is ignored");
+        assertArrayEquals(new long[]{2}, parallelism.histogram(2, values, 0, Double.MIN_VALUE, 1), "subnormal range");
+        assertArrayEquals(new long[]{5, 0}, parallelism.histogram(2, values, -0.0, Double.POSITIVE_INFINITY, 2), "infinite range");
+        assertTrue(Double.isNaN(parallelism.maximum(2, values)));
+        assertTrue(Double.isNaN(parallelism.sum(2, values)));
+    }
+
+    @Test
+    public void test4_invalidArguments() throws InterruptedException {
+        final PrimitiveParallelism parallelism = new PrimitiveParallelism();
+        final int[] ints = {1, 2, 3};
+        assertThrows(IndexOutOfBoundsException.class, () -> parallelism.sum(2, ints, 2, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> parallelism.filter(2, ints, 2, 1, x -> true));
+        assertThrows(IllegalArgumentException.class, () -> parallelism.histogram(2, ints, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> parallelism.maximum(2, new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> parallelism.histogram(2, new double[0], 0, 1, -1));
+        assertEquals(0, parallelism.sum(2, new double[0]));
+        assertArrayEquals(new int[0], parallelism.map(2, new int[0], x -> x));
+    }
+}
@@ -0,0 +1,35 @@
+package ru.ifmo.rain.kurbatov.concurrent;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Blocking iterator over results of streaming mapping.
+ * Closing iterator stops reading arguments and discards results which are not taken yet.
+ *
+ * @param <R> type of results
+ * @see ParallelMapperImpl#mapStreaming
+ */
+public interface ResultIterator<R> extends AutoCloseable {
+    /**
+     * Checks if there are more results.
+     *
+     * @return {@code true} if {@link #next()} will return result or throw exception of mapping function
+     */
+    boolean hasNext();
+
+    /**
+     * Waits for the next result.
+     *
+     * @return next result
+     * @throws InterruptedException if current thread was interrupted while waiting
+     * @throws NoSuchElementException if there are no more results
+     * @throws RuntimeException if mapping function threw it for corresponding argument
+     */
+    R next() throws InterruptedException;
+
+    /**
+     * Stops mapping. Arguments which are already submitted are skipped if they are not started yet.
+     */
+    @Override
+    void close();
+}